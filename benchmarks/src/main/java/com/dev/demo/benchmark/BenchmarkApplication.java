@@ -0,0 +1,59 @@
+package com.dev.demo.benchmark;
+
+import com.dev.demo.SpringbootRestapiTutorialApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class BenchmarkApplication {
+
+    private static final String[] DEFAULT_PROPERTIES = {
+            "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "spring.datasource.username=sa",
+            "spring.datasource.password=",
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "spring.jpa.show-sql=false",
+            "logging.level.root=WARN"
+    };
+
+    private BenchmarkApplication() {
+    }
+
+    // Passed as command line arguments so they win over application.yml and its profiles;
+    // a property given to start() replaces the default with the same name
+    public static ConfigurableApplicationContext start(String... properties) {
+        Map<String, String> merged = new LinkedHashMap<>();
+        for (String property : DEFAULT_PROPERTIES)
+            put(merged, property);
+        for (String property : properties)
+            put(merged, property);
+
+        return new SpringApplicationBuilder(SpringbootRestapiTutorialApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(merged.entrySet().stream()
+                        .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                        .toArray(String[]::new));
+    }
+
+    public static void seedCustomers(ConfigurableApplicationContext context, int count) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                insert into customers (id, name, email, address)
+                select x, 'Customer ' || x, 'customer' || x || '@gmail.com', 'US'
+                from system_range(1, ?)
+                """, count);
+
+        // Keep ids allocated by the pooled sequence clear of the seeded range
+        jdbcTemplate.execute("alter sequence customers_seq restart with " + (count + 100));
+    }
+
+    private static void put(Map<String, String> properties, String property) {
+        int separator = property.indexOf('=');
+        properties.put(property.substring(0, separator), property.substring(separator + 1));
+    }
+}
@@ -0,0 +1,81 @@
+package com.dev.demo.benchmark;
+
+import com.dev.demo.customer.BatchItemResult;
+import com.dev.demo.customer.Customer;
+import com.dev.demo.customer.CustomerDto;
+import com.dev.demo.customer.CustomerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of uncached reads and batch creates with the settings from {@code application.yml}
+ * alone ({@code default}, which pretty-prints every statement to stdout) against the
+ * {@code production} profile. Sixteen threads share the pool, so pool size and connection
+ * wait show up in the numbers.
+ * <p>
+ * The benchmark runs on H2, which ignores the PostgreSQL driver settings of the profile;
+ * point {@code spring.datasource.*} at PostgreSQL to measure those as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class ConnectionPoolProfileBenchmark {
+
+    private static final int CUSTOMER_COUNT = 10_000;
+
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"default", "production"})
+    public String profile;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private CustomerService customerService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "production".equals(profile)
+                ? BenchmarkApplication.start("spring.profiles.active=production")
+                : BenchmarkApplication.start("spring.jpa.show-sql=true");
+        BenchmarkApplication.seedCustomers(context, CUSTOMER_COUNT);
+
+        customerService = context.getBean(CustomerService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CustomerDto> getCustomersAfter() {
+        return customerService.getCustomersAfter(ThreadLocalRandom.current().nextLong(0, CUSTOMER_COUNT), 20);
+    }
+
+    @Benchmark
+    public List<BatchItemResult> createCustomers() {
+        List<Customer> customers = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            long n = sequence.incrementAndGet();
+            customers.add(Customer.builder()
+                    .name("Benchmark " + n)
+                    .email("benchmark" + n + "@gmail.com")
+                    .address("US")
+                    .build());
+        }
+
+        return customerService.createCustomers(customers);
+    }
+}
@@ -0,0 +1,75 @@
+package com.dev.demo.benchmark;
+
+import com.dev.demo.customer.BatchItemResult;
+import com.dev.demo.customer.Customer;
+import com.dev.demo.customer.CustomerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Patching {@value #BATCH_SIZE} addresses one request at a time against a single bulk
+ * {@code partialUpdateCustomers} call. Scores are per customer, so the two are directly comparable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerBatchUpdateBenchmark {
+
+    private static final int CUSTOMER_COUNT = 10_000;
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private CustomerService customerService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedCustomers(context, CUSTOMER_COUNT);
+
+        customerService = context.getBean(CustomerService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int partialUpdateLoop() {
+        int updated = 0;
+        for (Customer changes : addressChanges())
+            if (customerService.partialUpdate(changes.getId(), null, changes) != null)
+                updated++;
+        return updated;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<BatchItemResult> partialUpdateCustomers() {
+        return customerService.partialUpdateCustomers(addressChanges());
+    }
+
+    private List<Customer> addressChanges() {
+        long firstId = ThreadLocalRandom.current().nextLong(1, CUSTOMER_COUNT - BATCH_SIZE + 2);
+        String address = "Address " + sequence.incrementAndGet();
+
+        List<Customer> changes = new ArrayList<>(BATCH_SIZE);
+        for (long id = firstId; id < firstId + BATCH_SIZE; id++)
+            changes.add(Customer.builder().id(id).address(address).build());
+        return changes;
+    }
+}
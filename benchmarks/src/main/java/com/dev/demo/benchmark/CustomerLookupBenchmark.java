@@ -0,0 +1,115 @@
+package com.dev.demo.benchmark;
+
+import com.dev.demo.customer.CustomerDto;
+import com.dev.demo.customer.CustomerLookupCoalescer;
+import com.dev.demo.customer.CustomerLookupCoalescerProperties;
+import com.dev.demo.customer.CustomerLookupResult;
+import com.dev.demo.customer.CustomerRepository;
+import com.dev.demo.customer.CustomerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a page of {@value #IDS_PER_PAGE} customers fetched one id at a time against one
+ * {@code ids=} lookup, and 16 concurrent single-id readers going straight to the database
+ * against the same readers sharing batched queries through {@link CustomerLookupCoalescer}.
+ * <p>
+ * Every path goes around the customer cache and the query cache is off, so each lookup
+ * reaches the database.
+ * With H2 in memory a round trip is nearly free; against PostgreSQL over a network the gap
+ * grows with the round-trip time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerLookupBenchmark {
+
+    private static final int CUSTOMER_COUNT = 10_000;
+
+    private static final int IDS_PER_PAGE = 50;
+
+    private ConfigurableApplicationContext context;
+
+    private CustomerRepository customerRepository;
+
+    private CustomerService customerService;
+
+    private CustomerLookupCoalescer coalescer;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        BenchmarkApplication.seedCustomers(context, CUSTOMER_COUNT);
+
+        customerRepository = context.getBean(CustomerRepository.class);
+        customerService = context.getBean(CustomerService.class);
+
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        coalescer = new CustomerLookupCoalescer(customerService, new NoOpCache("customers"),
+                new CustomerLookupCoalescerProperties(true, Duration.ofMillis(2), 100, Duration.ofSeconds(5)), new SimpleMeterRegistry());
+        coalescer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        coalescer.stop();
+        context.close();
+    }
+
+    @Benchmark
+    public List<CustomerDto> pageOfSingleLookups() {
+        List<CustomerDto> customers = new ArrayList<>(IDS_PER_PAGE);
+        for (Long id : randomIds())
+            customers.add(readOnlyTransaction.execute(status -> customerRepository.findDtoById(id).orElseThrow()));
+
+        return customers;
+    }
+
+    @Benchmark
+    public CustomerLookupResult pageOfBatchLookup() {
+        return customerService.getCustomersByIds(randomIds());
+    }
+
+    @Benchmark
+    @Threads(16)
+    public CustomerDto concurrentDirectLookup() {
+        long id = randomId();
+
+        return readOnlyTransaction.execute(status -> customerRepository.findDtoById(id).orElseThrow());
+    }
+
+    @Benchmark
+    @Threads(16)
+    public CustomerDto concurrentCoalescedLookup() {
+        return coalescer.getCustomerById(randomId());
+    }
+
+    private static List<Long> randomIds() {
+        List<Long> ids = new ArrayList<>(IDS_PER_PAGE);
+        for (int i = 0; i < IDS_PER_PAGE; i++)
+            ids.add(randomId());
+
+        return ids;
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, CUSTOMER_COUNT + 1);
+    }
+}
@@ -0,0 +1,50 @@
+package com.dev.demo.benchmark;
+
+import com.dev.demo.customer.CreateCustomerRequest;
+import com.dev.demo.customer.Customer;
+import com.dev.demo.customer.CustomerDto;
+import com.dev.demo.customer.CustomerMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerMapperBenchmark {
+
+    private final CustomerMapper customerMapper = new CustomerMapper();
+
+    private Customer customer;
+
+    private CreateCustomerRequest createCustomerRequest;
+
+    @Setup
+    public void setUp() {
+        customer = Customer.builder()
+                .id(1L)
+                .name("Alice")
+                .email("alice@gmail.com")
+                .address("US")
+                .build();
+
+        createCustomerRequest = CreateCustomerRequest.builder()
+                .name("Alice")
+                .email("alice@gmail.com")
+                .address("US")
+                .build();
+    }
+
+    @Benchmark
+    public CustomerDto toCustomerDto() {
+        return customerMapper.toCustomerDto(customer);
+    }
+
+    @Benchmark
+    public Customer toCustomerToCreate() {
+        return customerMapper.toCustomerToCreate(createCustomerRequest);
+    }
+}
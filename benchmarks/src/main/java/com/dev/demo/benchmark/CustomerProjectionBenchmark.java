@@ -0,0 +1,110 @@
+package com.dev.demo.benchmark;
+
+import com.dev.demo.customer.Customer;
+import com.dev.demo.customer.CustomerDto;
+import com.dev.demo.customer.CustomerMapper;
+import com.dev.demo.customer.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading managed entities and mapping them with {@link CustomerMapper}
+ * against projecting rows straight into {@link CustomerDto}.
+ * Read {@code gc.alloc.rate.norm} to compare the bytes allocated per operation.
+ * <p>
+ * Both sides run in a read-only transaction and go around the customer cache,
+ * so every operation hits the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerProjectionBenchmark {
+
+    private static final int CUSTOMER_COUNT = 10_000;
+
+    private static final int PAGE_SIZE = 100;
+
+    private final CustomerMapper customerMapper = new CustomerMapper();
+
+    private ConfigurableApplicationContext context;
+
+    private CustomerRepository customerRepository;
+
+    private EntityManager entityManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedCustomers(context, CUSTOMER_COUNT);
+
+        customerRepository = context.getBean(CustomerRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerDto getByIdEntity() {
+        long id = randomId();
+
+        return readOnlyTransaction.execute(status ->
+                customerMapper.toCustomerDto(customerRepository.findById(id).orElseThrow()));
+    }
+
+    @Benchmark
+    public CustomerDto getByIdProjection() {
+        long id = randomId();
+
+        return readOnlyTransaction.execute(status ->
+                customerRepository.findDtoById(id).orElseThrow());
+    }
+
+    @Benchmark
+    public List<CustomerDto> pageEntity() {
+        long afterId = randomAfterId();
+
+        return readOnlyTransaction.execute(status ->
+                entityManager.createQuery("select c from Customer c where c.id > :id order by c.id", Customer.class)
+                        .setParameter("id", afterId)
+                        .setMaxResults(PAGE_SIZE)
+                        .getResultList()
+                        .stream()
+                        .map(customerMapper::toCustomerDto)
+                        .toList());
+    }
+
+    @Benchmark
+    public List<CustomerDto> pageProjection() {
+        long afterId = randomAfterId();
+
+        return readOnlyTransaction.execute(status ->
+                customerRepository.findDtosAfterId(afterId, Limit.of(PAGE_SIZE)));
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, CUSTOMER_COUNT + 1);
+    }
+
+    private static long randomAfterId() {
+        return ThreadLocalRandom.current().nextLong(0, CUSTOMER_COUNT - PAGE_SIZE + 1);
+    }
+}
@@ -0,0 +1,77 @@
+package com.dev.demo.benchmark;
+
+import com.dev.demo.customer.Customer;
+import com.dev.demo.customer.CustomerDto;
+import com.dev.demo.customer.CustomerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end service operations (proxies, transactions, Hibernate, H2) on a seeded table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerServiceBenchmark {
+
+    private static final int CUSTOMER_COUNT = 10_000;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private CustomerService customerService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedCustomers(context, CUSTOMER_COUNT);
+
+        customerService = context.getBean(CustomerService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerDto getCustomerById() {
+        return customerService.getCustomerById(randomId());
+    }
+
+    @Benchmark
+    public List<CustomerDto> getCustomersAfter() {
+        return customerService.getCustomersAfter(randomId(), 20);
+    }
+
+    @Benchmark
+    public Customer createCustomer() {
+        long n = sequence.incrementAndGet();
+
+        return customerService.createCustomer(Customer.builder()
+                .name("Benchmark " + n)
+                .email("benchmark" + n + "@gmail.com")
+                .address("US")
+                .build());
+    }
+
+    @Benchmark
+    public CustomerDto partialUpdate() {
+        return customerService.partialUpdate(randomId(), null, Customer.builder()
+                .address("Address " + sequence.incrementAndGet())
+                .build());
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, CUSTOMER_COUNT + 1);
+    }
+}
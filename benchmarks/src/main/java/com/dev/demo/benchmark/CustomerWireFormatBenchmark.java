@@ -0,0 +1,86 @@
+package com.dev.demo.benchmark;
+
+import com.dev.demo.customer.CustomerDto;
+import com.dev.demo.customer.CustomerProtobufCodec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Encodes and decodes a list of {@value #CUSTOMER_COUNT} customers as JSON, CBOR and protobuf,
+ * the formats the customer endpoints negotiate. The payload size of each format is printed
+ * once per trial, next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerWireFormatBenchmark {
+
+    private static final int CUSTOMER_COUNT = 10_000;
+
+    private static final TypeReference<List<CustomerDto>> CUSTOMER_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "protobuf"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+
+    private List<CustomerDto> customers;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same defaults as the ObjectMapper Spring Boot hands to the HTTP message converters
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (format.equals("cbor"))
+            builder.factory(new CBORFactory());
+        objectMapper = builder.build();
+
+        customers = LongStream.rangeClosed(1, CUSTOMER_COUNT)
+                .mapToObj(id -> CustomerDto.builder()
+                        .id(id)
+                        .name("Customer " + id)
+                        .email("customer" + id + "@gmail.com")
+                        .address("US")
+                        .build())
+                .toList();
+
+        encoded = encode();
+        System.out.printf("%n%s payload: %d bytes%n", format, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (!format.equals("protobuf"))
+            return objectMapper.writeValueAsBytes(customers);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        CustomerProtobufCodec.writeCustomers(customers, output);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<CustomerDto> decode() throws IOException {
+        if (!format.equals("protobuf"))
+            return objectMapper.readValue(encoded, CUSTOMER_LIST);
+
+        return CustomerProtobufCodec.readCustomers(CodedInputStream.newInstance(encoded));
+    }
+}
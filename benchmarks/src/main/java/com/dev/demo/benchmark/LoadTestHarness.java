@@ -0,0 +1,130 @@
+package com.dev.demo.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load generator for comparing platform and virtual request threads.
+ * Every connection is driven by its own virtual thread that issues requests back to back.
+ * <p>
+ * The default target is a keyset page, which is not cached and borrows a pool connection
+ * on every request. Lookups by id are served from the customer cache and never reach the
+ * pool, so they do not show how request threads queue up behind it.
+ * <p>
+ * Start the application twice, with {@code --spring.threads.virtual.enabled=false} and
+ * {@code =true} (optionally {@code --app.admission.enabled=true}), and run:
+ * <pre>
+ * mvn -f benchmarks/pom.xml package exec:java -Dexec.mainClass=com.dev.demo.benchmark.LoadTestHarness \
+ *     -Dexec.args="http://localhost:8080/api/v1/customers?after=1000&amp;limit=20 2000 60"
+ * </pre>
+ */
+public final class LoadTestHarness {
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080/api/v1/customers?after=1000&limit=20");
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 60);
+        Duration warmup = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 10);
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        List<Future<Result>> futures = new ArrayList<>(connections);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                futures.add(executor.submit(() -> drive(client, request, measureFrom, measureUntil)));
+            }
+
+            Result total = new Result();
+            for (Future<Result> future : futures) {
+                total.merge(future.get());
+            }
+            total.print(uri, connections, duration);
+        }
+    }
+
+    private static Result drive(HttpClient client, HttpRequest request, long measureFrom, long measureUntil) {
+        Result result = new Result();
+        long now;
+        while ((now = System.nanoTime()) < measureUntil) {
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                status = -1;
+            }
+
+            if (now >= measureFrom) {
+                result.record(System.nanoTime() - now, status);
+            }
+        }
+        return result;
+    }
+
+    private static final class Result {
+
+        private long[] latencies = new long[1024];
+
+        private int count;
+
+        private long errors;
+
+        void record(long latencyNanos, int status) {
+            if (status < 200 || status >= 300) {
+                errors++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+
+        void merge(Result other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        void print(URI uri, int connections, Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+
+            System.out.printf("target:      %s%n", uri);
+            System.out.printf("connections: %d%n", connections);
+            System.out.printf("requests:    %d (%d non-2xx or failed)%n", count, errors);
+            System.out.printf("throughput:  %.1f req/s%n", count / (double) duration.toSeconds());
+            System.out.printf("p50:         %.2f ms%n", percentile(sorted, 0.50));
+            System.out.printf("p99:         %.2f ms%n", percentile(sorted, 0.99));
+            System.out.printf("p999:        %.2f ms%n", percentile(sorted, 0.999));
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
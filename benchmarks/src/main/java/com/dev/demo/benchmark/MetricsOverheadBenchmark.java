@@ -0,0 +1,78 @@
+package com.dev.demo.benchmark;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry-side cost of the meters recorded per request: one {@code http.server.requests}
+ * timer and two {@code spring.data.repository.invocations} timers with the production tags
+ * and histogram settings, each looked up by tags and recorded into a Prometheus histogram.
+ * <p>
+ * The timers are built directly against the registry. The servlet observation filter, the
+ * repository interceptor and the Observation API they go through are not run, so their
+ * own work (observation contexts, tag providers, handler dispatch) comes on top of this
+ * number. Treat it as a lower bound, not the overhead of the instrumented request path.
+ * Run with {@code -t 8} (or more) to include contention on the registry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private static final Tags HTTP_TAGS = Tags.of(
+            "method", "GET",
+            "uri", "/api/v1/customers/{id}",
+            "status", "200",
+            "outcome", "SUCCESS",
+            "exception", "none",
+            "error", "none");
+
+    private PrometheusMeterRegistry registry;
+
+    @Setup
+    public void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    }
+
+    @Benchmark
+    public long instrumentedRequest() {
+        long start = System.nanoTime();
+
+        recordRepositoryInvocation("findById", start);
+        recordRepositoryInvocation("existsByEmail", start);
+
+        Timer.builder("http.server.requests")
+                .tags(HTTP_TAGS)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        return start;
+    }
+
+    @Benchmark
+    public long uninstrumentedRequest() {
+        return System.nanoTime();
+    }
+
+    private void recordRepositoryInvocation(String method, long start) {
+        Timer.builder("spring.data.repository.invocations")
+                .tags("repository", "CustomerRepository", "method", method, "state", "SUCCESS", "exception", "None")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,85 @@
+package com.dev.demo.benchmark;
+
+import com.dev.demo.customer.CustomerDto;
+import com.dev.demo.customer.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares keyset (seek) paging with OFFSET paging at increasing page depths.
+ * Keyset latency should stay flat while OFFSET grows with the page number.
+ * <p>
+ * H2 can skip along a primary key in logarithmic time, which hides most of the
+ * OFFSET cost; run against PostgreSQL for representative numbers, e.g.
+ * {@code -jvmArgsAppend "-Dspring.datasource.url=jdbc:postgresql://localhost:5432/customer ..."}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaginationBenchmark {
+
+    private static final int CUSTOMER_COUNT = 1_000_000;
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"1", "1000", "100000"})
+    private int page;
+
+    private ConfigurableApplicationContext context;
+
+    private CustomerRepository customerRepository;
+
+    private EntityManager entityManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private long afterId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedCustomers(context, CUSTOMER_COUNT);
+
+        customerRepository = context.getBean(CustomerRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        // Seeded ids are dense, so the cursor of the previous page is simply its last id
+        afterId = (long) (page - 1) * PAGE_SIZE;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CustomerDto> keyset() {
+        return readOnlyTransaction.execute(status ->
+                customerRepository.findDtosAfterId(afterId, Limit.of(PAGE_SIZE)));
+    }
+
+    @Benchmark
+    public List<CustomerDto> offset() {
+        return readOnlyTransaction.execute(status ->
+                entityManager.createQuery("""
+                                select new com.dev.demo.customer.CustomerDto(c.id, c.name, c.email, c.address, c.version)
+                                from Customer c order by c.id
+                                """, CustomerDto.class)
+                        .setFirstResult((page - 1) * PAGE_SIZE)
+                        .setMaxResults(PAGE_SIZE)
+                        .getResultList());
+    }
+}
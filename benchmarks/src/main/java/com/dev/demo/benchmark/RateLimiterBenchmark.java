@@ -0,0 +1,95 @@
+package com.dev.demo.benchmark;
+
+import com.dev.demo.web.ClientRateLimiter;
+import com.dev.demo.web.RateLimitProperties;
+import com.dev.demo.web.RequestCost;
+import com.dev.demo.web.TokenBucket;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Per-request cost of the rate limiter with every available core calling it at once. The
+ * buckets refill faster than they can be drained, so each call takes a token and the numbers
+ * show contention rather than rejections. {@code sharedBucket} has all threads on one bucket,
+ * the worst case of a single client hammering the API; {@code lockedBucket} is a
+ * synchronized token bucket under the same load for comparison. {@code perClient} adds the
+ * client lookup, with {@code clients} spreading the threads over that many buckets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int UNLIMITED = 1_000_000_000;
+
+    @Param({"1", "10000"})
+    private int clients;
+
+    private TokenBucket sharedBucket;
+
+    private LockedTokenBucket lockedBucket;
+
+    private ClientRateLimiter rateLimiter;
+
+    private String[] clientKeys;
+
+    @Setup
+    public void setUp() {
+        sharedBucket = new TokenBucket(UNLIMITED, UNLIMITED);
+        lockedBucket = new LockedTokenBucket(UNLIMITED, UNLIMITED);
+        rateLimiter = new ClientRateLimiter(
+                new RateLimitProperties(true, "X-API-Key", Set.of(), 100_000, UNLIMITED, UNLIMITED, UNLIMITED, UNLIMITED));
+        clientKeys = IntStream.range(0, clients).mapToObj(client -> "key:client-" + client).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public boolean sharedBucket() {
+        return sharedBucket.tryAcquire();
+    }
+
+    @Benchmark
+    public boolean lockedBucket() {
+        return lockedBucket.tryAcquire();
+    }
+
+    @Benchmark
+    public boolean perClient() {
+        String client = clientKeys[ThreadLocalRandom.current().nextInt(clientKeys.length)];
+        return rateLimiter.tryAcquire(client, RequestCost.SINGLE);
+    }
+
+    private static final class LockedTokenBucket {
+
+        private final double capacity;
+
+        private final double tokensPerNano;
+
+        private double tokens;
+
+        private long refilledAtNanos = System.nanoTime();
+
+        LockedTokenBucket(int capacity, int refillPerSecond) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerSecond / 1e9;
+            this.tokens = capacity;
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAtNanos) * tokensPerNano);
+            refilledAtNanos = now;
+            if (tokens < 1)
+                return false;
+            tokens--;
+            return true;
+        }
+    }
+}
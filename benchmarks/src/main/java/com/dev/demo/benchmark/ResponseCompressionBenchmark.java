@@ -0,0 +1,81 @@
+package com.dev.demo.benchmark;
+
+import com.dev.demo.customer.CustomerDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Prices gzip on a JSON customer list at a few levels against serving the same bytes from a
+ * cache keyed by ETag, as the precompressed response filter does for hot list pages.
+ * The compressed size of each level is printed once per trial, so CPU time per operation
+ * can be read against the bytes saved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    @Param({"1", "6", "9"})
+    private int level;
+
+    private byte[] body;
+
+    private Cache<String, byte[]> compressedResponses;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same defaults as the ObjectMapper Spring Boot hands to the HTTP message converters
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<CustomerDto> customers = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> CustomerDto.builder()
+                        .id(id)
+                        .name("Customer " + id)
+                        .email("customer" + id + "@gmail.com")
+                        .address("US")
+                        .build())
+                .toList();
+        body = objectMapper.writeValueAsBytes(customers);
+
+        compressedResponses = Caffeine.newBuilder().maximumSize(1).build();
+        byte[] compressed = gzip();
+        compressedResponses.put("\"" + size + "\"", compressed);
+
+        System.out.printf("%n%d customers: %d bytes, %d bytes at gzip level %d%n",
+                size, body.length, compressed.length, level);
+    }
+
+    @Benchmark
+    public byte[] gzip() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            output.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] cachedGzip() {
+        return compressedResponses.getIfPresent("\"" + size + "\"");
+    }
+}
@@ -0,0 +1,40 @@
+package com.dev.demo.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Caching wraps the transactional proxy so evictions only happen once the write has committed.
+// The cache manager is Boot's Caffeine one, configured from spring.cache the same way, except
+// that its caches guard against loads that put back a value evicted while they ran
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String CUSTOMERS_CACHE = "customers";
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new EvictionGuardedCaffeineCache(name, cache, isAllowNullValues());
+            }
+        };
+
+        String specification = cacheProperties.getCaffeine().getSpec();
+        if (specification != null)
+            cacheManager.setCacheSpecification(specification);
+        if (!cacheProperties.getCacheNames().isEmpty())
+            cacheManager.setCacheNames(cacheProperties.getCacheNames());
+
+        return cacheManager;
+    }
+}
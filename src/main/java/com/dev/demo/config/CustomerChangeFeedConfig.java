@@ -0,0 +1,18 @@
+package com.dev.demo.config;
+
+import com.dev.demo.customer.CustomerChangeFeed;
+import com.dev.demo.customer.CustomerChangeFeedProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CustomerChangeFeedProperties.class)
+public class CustomerChangeFeedConfig {
+
+    @Bean
+    public CustomerChangeFeed customerChangeFeed(CustomerChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        return new CustomerChangeFeed(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.dev.demo.config;
+
+import com.dev.demo.customer.CustomerCreateQueue;
+import com.dev.demo.customer.CustomerCreateQueueProperties;
+import com.dev.demo.customer.CustomerMapper;
+import com.dev.demo.customer.CustomerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CustomerCreateQueueProperties.class)
+public class CustomerCreateQueueConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.customer.create-queue", name = "enabled", havingValue = "true")
+    public CustomerCreateQueue customerCreateQueue(
+            CustomerService customerService,
+            CustomerMapper customerMapper,
+            CustomerCreateQueueProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        return new CustomerCreateQueue(customerService, customerMapper, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,28 @@
+package com.dev.demo.config;
+
+import com.dev.demo.customer.CustomerLookupCoalescer;
+import com.dev.demo.customer.CustomerLookupCoalescerProperties;
+import com.dev.demo.customer.CustomerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CustomerLookupCoalescerProperties.class)
+public class CustomerLookupCoalescerConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.customer.lookup-coalescer", name = "enabled", havingValue = "true")
+    public CustomerLookupCoalescer customerLookupCoalescer(
+            CustomerService customerService,
+            CacheManager cacheManager,
+            CustomerLookupCoalescerProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        return new CustomerLookupCoalescer(customerService, cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE),
+                properties, meterRegistry);
+    }
+}
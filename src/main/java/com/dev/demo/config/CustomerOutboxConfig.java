@@ -0,0 +1,42 @@
+package com.dev.demo.config;
+
+import com.dev.demo.customer.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+// Without the relay nothing would empty the table, so the writer is only registered with it
+@Configuration
+@EnableConfigurationProperties(CustomerOutboxProperties.class)
+@ConditionalOnProperty(prefix = "app.customer.outbox", name = "enabled", havingValue = "true")
+public class CustomerOutboxConfig {
+
+    @Bean
+    public CustomerOutboxWriter customerOutboxWriter(CustomerOutboxRepository customerOutboxRepository, ObjectMapper objectMapper) {
+        return new CustomerOutboxWriter(customerOutboxRepository, objectMapper);
+    }
+
+    @Bean
+    public CustomerOutboxSink fileCustomerOutboxSink(CustomerOutboxProperties properties, ObjectMapper objectMapper) {
+        return new FileCustomerOutboxSink(Path.of(properties.file()), objectMapper);
+    }
+
+    @Bean
+    public CustomerOutboxRelay customerOutboxRelay(
+            CustomerOutboxRepository customerOutboxRepository,
+            CustomerOutboxSink customerOutboxSink,
+            PlatformTransactionManager transactionManager,
+            CustomerOutboxProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        return new CustomerOutboxRelay(customerOutboxRepository, customerOutboxSink,
+                new TransactionTemplate(transactionManager), properties, meterRegistry);
+    }
+}
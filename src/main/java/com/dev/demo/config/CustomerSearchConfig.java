@@ -0,0 +1,66 @@
+package com.dev.demo.config;
+
+import com.dev.demo.customer.CustomerRepository;
+import com.dev.demo.customer.CustomerSearch;
+import com.dev.demo.customer.JpqlCustomerSearch;
+import com.dev.demo.customer.PostgresCustomerSearch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+
+// The trigram index is only built once the application is ready, after Hibernate created the customers table
+@Configuration
+@Slf4j
+public class CustomerSearchConfig {
+
+    @Bean
+    public CustomerSearch customerSearch(
+            DataSourceProperties dataSourceProperties,
+            DataSource dataSource,
+            CustomerRepository customerRepository
+    ) {
+        if (DatabaseDriver.fromJdbcUrl(dataSourceProperties.determineUrl()) != DatabaseDriver.POSTGRESQL)
+            return new JpqlCustomerSearch(customerRepository);
+
+        try {
+            PostgresCustomerSearch.createExtension(new JdbcTemplate(dataSource));
+            return new PostgresCustomerSearch(new NamedParameterJdbcTemplate(dataSource));
+        } catch (DataAccessException e) {
+            log.warn("pg_trgm extension unavailable, falling back to scanning search: {}", e.toString());
+            return new JpqlCustomerSearch(customerRepository);
+        }
+    }
+
+    // Building the index reads the whole table, so it runs in the background once the application
+    // is up; until it is valid, searches still work and scan the table
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> customerSearchIndexBuild(CustomerSearch customerSearch, DataSource dataSource) {
+        return event -> {
+            if (!(customerSearch instanceof PostgresCustomerSearch))
+                return;
+
+            Thread builder = new Thread(() -> buildIndex(new JdbcTemplate(dataSource)), "customer-search-index");
+            builder.setDaemon(true);
+            builder.start();
+        };
+    }
+
+    private static void buildIndex(JdbcTemplate jdbcTemplate) {
+        long startedAt = System.nanoTime();
+        try {
+            PostgresCustomerSearch.createIndex(jdbcTemplate);
+            log.info("Trigram search index ready in {} ms", (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (DataAccessException e) {
+            log.warn("Trigram search index build failed, search keeps scanning until the next start: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.dev.demo.config;
+
+import com.dev.demo.customer.EmailFingerprintIndex;
+import com.dev.demo.customer.EmailIndexProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// The index is always wired into the service, but it only answers "absent" once it has been
+// warmed from the table; until then, and whenever it is disabled, email checks hit the database
+@Configuration
+@EnableConfigurationProperties(EmailIndexProperties.class)
+@Slf4j
+public class EmailIndexConfig {
+
+    private static final int WARM_UP_FETCH_SIZE = 10_000;
+
+    // A disabled index ignores the emails the service adds, so it does not grow with every write
+    @Bean
+    public EmailFingerprintIndex emailFingerprintIndex(EmailIndexProperties properties) {
+        return properties.enabled() ? new EmailFingerprintIndex() : EmailFingerprintIndex.disabled();
+    }
+
+    // Streams the emails inside a read-only transaction so the driver honours the fetch size;
+    // writes made meanwhile are added by the service as usual, so nothing is missed
+    @Bean
+    @ConditionalOnProperty(prefix = "app.customer.email-index", name = "enabled", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> emailIndexWarmUp(
+            EmailFingerprintIndex emailIndex,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager
+    ) {
+        return event -> {
+            JdbcTemplate streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+            streamingJdbcTemplate.setFetchSize(WARM_UP_FETCH_SIZE);
+
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+
+            long startedAt = System.nanoTime();
+            readOnlyTransaction.executeWithoutResult(status ->
+                    streamingJdbcTemplate.query("select email from customers", rs -> {
+                        emailIndex.add(rs.getString(1));
+                    }));
+            emailIndex.markReady();
+
+            log.info("Email index warmed with {} emails using {} KB in {} ms", emailIndex.size(),
+                    emailIndex.memoryBytes() / 1024, (System.nanoTime() - startedAt) / 1_000_000);
+        };
+    }
+}
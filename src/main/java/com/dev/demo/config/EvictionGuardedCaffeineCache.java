@@ -0,0 +1,56 @@
+package com.dev.demo.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Evictions run once a write has committed, but a load that read the row before the commit
+// can still put the old value back afterwards, where it would stay until it expires. Caffeine
+// makes an eviction of the loading key wait for the load, but clear() passes over keys that
+// are still loading. Every eviction is counted, and a load that sees the count move while it
+// ran evicts what it just put. Only loads through get(key, loader) are covered, so @Cacheable
+// methods need sync = true
+public class EvictionGuardedCaffeineCache extends CaffeineCache {
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public EvictionGuardedCaffeineCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        long evictionsBefore = evictions.get();
+        T value = super.get(key, valueLoader);
+
+        if (evictions.get() != evictionsBefore)
+            super.evict(key);
+        return value;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictions.incrementAndGet();
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        evictions.incrementAndGet();
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        evictions.incrementAndGet();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        evictions.incrementAndGet();
+        return super.invalidate();
+    }
+}
@@ -0,0 +1,43 @@
+package com.dev.demo.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.OptionalLong;
+
+// Each context gets its own in-process Caffeine cache manager, with one bounded cache per
+// configured region. Regions that are not configured, such as Hibernate's update timestamps
+// region, are created unbounded by Hibernate; the timestamps region must never evict entries
+@Configuration
+@EnableConfigurationProperties(HibernateCacheProperties.class)
+public class HibernateCacheConfig {
+
+    @Bean
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        CaffeineCachingProvider cachingProvider = new CaffeineCachingProvider();
+        CacheManager cacheManager = cachingProvider.getCacheManager(
+                cachingProvider.getDefaultURI(), getClass().getClassLoader());
+
+        properties.regions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.maximumSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(region.expireAfterWrite().toNanos()));
+            configuration.setStatisticsEnabled(true);
+
+            cacheManager.createCache(name, configuration);
+        });
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -0,0 +1,24 @@
+package com.dev.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Eviction policy per second-level cache region, keyed by region name
+@ConfigurationProperties(prefix = "app.hibernate-cache")
+public record HibernateCacheProperties(
+        Map<String, Region> regions
+) {
+
+    public HibernateCacheProperties {
+        regions = regions == null ? Map.of() : Map.copyOf(regions);
+    }
+
+    public record Region(
+            @DefaultValue("10000") long maximumSize,
+            @DefaultValue("10m") Duration expireAfterWrite
+    ) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.dev.demo.config;
+
+import com.dev.demo.customer.CustomerDto;
+import com.dev.demo.customer.CustomerDtoSerializer;
+import com.dev.demo.exception.ApiErrorResponse;
+import com.dev.demo.exception.ApiErrorResponseSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Spring Boot registers every Module bean with the application ObjectMapper, so the
+// hand-written serializers replace the bean serializers for HTTP bodies, the export,
+// the change feed and outbox payloads alike
+@Configuration
+public class JsonConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.json.hand-written-serializers", name = "enabled", havingValue = "true")
+    public Module handWrittenSerializersModule() {
+        return new SimpleModule("hand-written-serializers")
+                .addSerializer(CustomerDto.class, new CustomerDtoSerializer())
+                .addSerializer(ApiErrorResponse.class, new ApiErrorResponseSerializer());
+    }
+}
@@ -0,0 +1,104 @@
+package com.dev.demo.config;
+
+import com.dev.demo.web.AdmissionControlFilter;
+import com.dev.demo.web.AdmissionControlProperties;
+import com.dev.demo.web.LoadSheddingFilter;
+import com.dev.demo.web.LoadSheddingProperties;
+import com.dev.demo.web.PrecompressedResponseFilter;
+import com.dev.demo.web.PrecompressedResponseProperties;
+import com.dev.demo.web.PreferenceRequestMappingHandlerMapping;
+import com.dev.demo.web.RateLimitFilter;
+import com.dev.demo.web.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+@Configuration
+@EnableConfigurationProperties({
+        RateLimitProperties.class,
+        LoadSheddingProperties.class,
+        AdmissionControlProperties.class,
+        PrecompressedResponseProperties.class
+})
+public class WebConfig {
+
+    public static final String API_URL_PATTERN = "/api/*";
+
+    // Only the list endpoints; single customers stay below the threshold and the
+    // export streams, so both are left to the server's own compression
+    public static final String CUSTOMER_LIST_URL_PATTERN = "/api/v1/customers";
+
+    // Cheapest rejections first: a client over its budget never counts towards the load
+    // or takes one of the admission permits
+    @Bean
+    @ConditionalOnProperty(prefix = "app.rate-limit", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            RateLimitProperties properties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(properties, objectMapper, meterRegistry));
+        registration.addUrlPatterns(API_URL_PATTERN);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.load-shedding", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(
+            LoadSheddingProperties properties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        FilterRegistrationBean<LoadSheddingFilter> registration =
+                new FilterRegistrationBean<>(new LoadSheddingFilter(properties, objectMapper, meterRegistry));
+        registration.addUrlPatterns(API_URL_PATTERN);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.admission", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            AdmissionControlProperties properties,
+            ObjectMapper objectMapper
+    ) {
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(properties, objectMapper));
+        registration.addUrlPatterns(API_URL_PATTERN);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.compression.precompressed", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<PrecompressedResponseFilter> precompressedResponseFilter(
+            PrecompressedResponseProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        FilterRegistrationBean<PrecompressedResponseFilter> registration =
+                new FilterRegistrationBean<>(new PrecompressedResponseFilter(properties, meterRegistry));
+        registration.addUrlPatterns(CUSTOMER_LIST_URL_PATTERN);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+        return registration;
+    }
+
+    // Lets handlers be selected by the Prefer header, see RequiresPreference
+    @Bean
+    public WebMvcRegistrations preferenceAwareMvcRegistrations() {
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+                return new PreferenceRequestMappingHandlerMapping();
+            }
+        };
+    }
+}
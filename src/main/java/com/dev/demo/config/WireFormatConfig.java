@@ -0,0 +1,35 @@
+package com.dev.demo.config;
+
+import com.dev.demo.customer.CustomerProtobufHttpMessageConverter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// Binary formats are chosen by Accept and Content-Type. They are appended after JSON, so
+// a request without an Accept header, or with */*, keeps getting JSON.
+// CBOR is built from Spring Boot's ObjectMapper builder, so it shares the JSON mapper's
+// modules and settings instead of the plain mapper Spring MVC would register on its own
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public WireFormatConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter);
+
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapperBuilder
+                .factory(new CBORFactory())
+                .build()));
+        converters.add(new CustomerProtobufHttpMessageConverter());
+    }
+}
@@ -0,0 +1,17 @@
+package com.dev.demo.customer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BatchItemResult {
+    private int index;
+    private BatchItemStatus status;
+    private Customer customer;
+    private String message;
+}
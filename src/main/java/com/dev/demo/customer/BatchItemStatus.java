@@ -0,0 +1,9 @@
+package com.dev.demo.customer;
+
+public enum BatchItemStatus {
+    CREATED,
+    UPDATED,
+    CONFLICT,
+    NOT_FOUND,
+    VERSION_MISMATCH
+}
@@ -0,0 +1,17 @@
+package com.dev.demo.customer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BatchUpdateCustomerRequest {
+    private Long id;
+    // Optional, the item is only applied while the customer is still at this version
+    private Long version;
+    private UpdateCustomerRequest changes;
+}
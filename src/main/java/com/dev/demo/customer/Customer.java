@@ -2,6 +2,9 @@ package com.dev.demo.customer;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @NoArgsConstructor
 @AllArgsConstructor
@@ -10,12 +13,27 @@ import lombok.*;
 @ToString
 @Builder
 @Entity
-@Table(name = "customers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Customer.CACHE_REGION)
+@Table(name = "customers", indexes = @Index(name = Customer.EMAIL_UNIQUE_INDEX, columnList = "email", unique = true))
 public class Customer {
+
+    public static final String EMAIL_UNIQUE_INDEX = "uk_customers_email";
+
+    public static final String CACHE_REGION = "customers";
+
+    public static final String QUERY_CACHE_REGION = "customer-queries";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+    @SequenceGenerator(name = "customers_seq", sequenceName = "customers_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String email;
     private String address;
+
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
 }
@@ -0,0 +1,125 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.CustomerChangesUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Consumers keep the sequence of the last change they processed and ask only for what came
+// after it. Waiting happens on virtual threads, so idle subscribers hold no request thread
+@Slf4j
+@RestController
+@RequestMapping(path = "/api/v1/customers/changes")
+public class CustomerChangeController {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final CustomerChangeFeed customerChangeFeed;
+
+    private final CustomerChangeFeedProperties properties;
+
+    private final ExecutorService subscribers = Executors.newVirtualThreadPerTaskExecutor();
+
+    public CustomerChangeController(CustomerChangeFeed customerChangeFeed, CustomerChangeFeedProperties properties) {
+        this.customerChangeFeed = customerChangeFeed;
+        this.properties = properties;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.shutdownNow();
+    }
+
+    // Long poll: answers at once when there are changes after since, otherwise when the next
+    // one commits or with an empty page once the poll timeout passes
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<CustomerChangePage> pollChanges(
+            @RequestParam(name = "since", defaultValue = "0") long since,
+            @RequestParam(name = "limit", defaultValue = "100") int limit
+    ) {
+        int pageSize = Math.min(Math.max(limit, 1), properties.maxPageSize());
+
+        // Checked on the request thread so an unavailable position fails before going async
+        List<CustomerChange> available = customerChangeFeed.read(since, pageSize);
+        if (!available.isEmpty())
+            return CompletableFuture.completedFuture(page(since, available));
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return page(since, customerChangeFeed.await(since, pageSize, properties.pollTimeout()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return page(since, List.of());
+            }
+        }, subscribers);
+    }
+
+    // Each event carries its sequence as the SSE id, so a reconnecting EventSource resumes
+    // through Last-Event-ID. A subscriber that fell out of the ring gets a "reset" event
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(name = "since", required = false) Long since,
+            @RequestHeader(name = LAST_EVENT_ID, required = false) Long lastEventId
+    ) {
+        long start = lastEventId != null ? lastEventId : since != null ? since : customerChangeFeed.lastSequence();
+
+        SseEmitter emitter = new SseEmitter();
+        subscribers.execute(() -> stream(emitter, start));
+        return emitter;
+    }
+
+    private void stream(SseEmitter emitter, long since) {
+        long cursor = since;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<CustomerChange> changes = customerChangeFeed.await(cursor, properties.maxPageSize(), properties.pollTimeout());
+
+                // A comment line on an idle stream finds closed connections
+                if (changes.isEmpty())
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+
+                for (CustomerChange change : changes) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.getSequence()))
+                            .name(change.getType().name())
+                            .data(change, MediaType.APPLICATION_JSON));
+                    cursor = change.getSequence();
+                }
+            }
+        } catch (CustomerChangesUnavailableException e) {
+            sendReset(emitter, e);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Customer change subscriber disconnected: {}", e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            emitter.complete();
+        }
+    }
+
+    private void sendReset(SseEmitter emitter, CustomerChangesUnavailableException e) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("reset")
+                    .data(e.getMessage()));
+        } catch (IOException | IllegalStateException ignored) {
+            // The subscriber is gone already
+        }
+    }
+
+    private static CustomerChangePage page(long since, List<CustomerChange> changes) {
+        return CustomerChangePage.builder()
+                .content(changes)
+                .nextSince(changes.isEmpty() ? since : changes.get(changes.size() - 1).getSequence())
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.CustomerChangesUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Committed customer changes in a fixed-size ring, numbered from 1 in commit order. Writers
+// only copy a reference into the ring under a short lock and wake waiting readers; readers
+// copy their page out under the same lock and write to the network without it, so a slow
+// consumer can only fall behind, never hold up a write. A consumer that falls more than the
+// ring's capacity behind, or asks for a sequence this instance has not reached (for example
+// after a restart), is told to resynchronize from a full listing.
+public class CustomerChangeFeed {
+
+    public static final String SEQUENCE_METRIC = "customer.changes.sequence";
+
+    private final CustomerChange[] ring;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition appended = lock.newCondition();
+
+    private long lastSequence;
+
+    public CustomerChangeFeed(CustomerChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this.ring = new CustomerChange[properties.capacity()];
+
+        meterRegistry.gauge(SEQUENCE_METRIC, this, CustomerChangeFeed::lastSequence);
+    }
+
+    // Rolled-back writes never reach the feed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        lock.lock();
+        try {
+            long sequence = ++lastSequence;
+            ring[slot(sequence)] = CustomerChange.builder()
+                    .sequence(sequence)
+                    .type(event.type())
+                    .id(event.id())
+                    .customer(event.customer())
+                    .build();
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<CustomerChange> read(long since, int maxChanges) {
+        lock.lock();
+        try {
+            return copyAfter(since, maxChanges);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Returns as soon as there is at least one change after since, or empty once the timeout passes
+    public List<CustomerChange> await(long since, int maxChanges, Duration timeout) throws InterruptedException {
+        long remainingNanos = timeout.toNanos();
+
+        lock.lock();
+        try {
+            List<CustomerChange> changes = copyAfter(since, maxChanges);
+            while (changes.isEmpty() && remainingNanos > 0) {
+                remainingNanos = appended.awaitNanos(remainingNanos);
+                changes = copyAfter(since, maxChanges);
+            }
+            return changes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<CustomerChange> copyAfter(long since, int maxChanges) {
+        long oldestSequence = Math.max(1, lastSequence - ring.length + 1);
+        if (since > lastSequence || since < oldestSequence - 1)
+            throw new CustomerChangesUnavailableException("Changes after " + since + " are no longer available, " +
+                    "resynchronize from the customer listing and continue from sequence " + lastSequence);
+
+        int count = (int) Math.min(lastSequence - since, maxChanges);
+        List<CustomerChange> changes = new ArrayList<>(count);
+        for (long sequence = since + 1; sequence <= since + count; sequence++)
+            changes.add(ring[slot(sequence)]);
+        return changes;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+}
@@ -0,0 +1,14 @@
+package com.dev.demo.customer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.customer.change-feed")
+public record CustomerChangeFeedProperties(
+        @DefaultValue("10000") int capacity,
+        @DefaultValue("500") int maxPageSize,
+        @DefaultValue("30s") Duration pollTimeout
+) {
+}
@@ -0,0 +1,18 @@
+package com.dev.demo.customer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CustomerChangePage {
+    private List<CustomerChange> content;
+    // Pass back as "since" to continue after the last change on this page
+    private long nextSince;
+}
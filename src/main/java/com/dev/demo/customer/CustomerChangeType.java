@@ -0,0 +1,7 @@
+package com.dev.demo.customer;
+
+public enum CustomerChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
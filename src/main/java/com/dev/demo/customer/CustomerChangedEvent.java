@@ -0,0 +1,5 @@
+package com.dev.demo.customer;
+
+// Published inside the writing transaction; the customer is null for deletes
+public record CustomerChangedEvent(CustomerChangeType type, Long id, CustomerDto customer) {
+}
@@ -1,30 +1,141 @@
 package com.dev.demo.customer;
 
+import com.dev.demo.exception.InvalidCustomerLookupException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/api/v1/customers")
 public class CustomerController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final CustomerService customerService;
 
     private final CustomerMapper customerMapper;
 
-    public CustomerController(CustomerService customerService, CustomerMapper customerMapper) {
+    private final ObjectMapper objectMapper;
+
+    private final CustomerLookupCoalescer customerLookupCoalescer;
+
+    public CustomerController(
+            CustomerService customerService,
+            CustomerMapper customerMapper,
+            ObjectMapper objectMapper,
+            ObjectProvider<CustomerLookupCoalescer> customerLookupCoalescer
+    ) {
         this.customerService = customerService;
         this.customerMapper = customerMapper;
+        this.objectMapper = objectMapper;
+        this.customerLookupCoalescer = customerLookupCoalescer.getIfAvailable();
     }
 
+    // A matching If-None-Match on a GET is answered with 304 before the body is serialized.
+    // The ETags set here are those of the JSON body; CustomerETagFormatAdvice adapts them
     @GetMapping
-    public List<CustomerDto> getAllCustomers() {
-        return customerService.getAllCustomers()
-                .stream()
-                .map(customerMapper::toCustomerDto)
-                .toList();
+    public ResponseEntity<List<CustomerDto>> getAllCustomers() {
+        List<CustomerDto> customers = customerService.getAllCustomers();
+
+        return ResponseEntity.ok()
+                .eTag(CustomerETags.of(customers))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(customers);
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<CustomerPage> getCustomersPage(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit") int limit
+    ) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        List<CustomerDto> content = customerService.getCustomersAfter(after, pageSize);
+
+        Long nextCursor = content.size() < pageSize
+                ? null
+                : content.get(content.size() - 1).getId();
+
+        CustomerPage page = CustomerPage.builder()
+                .content(content)
+                .nextCursor(nextCursor)
+                .build();
+
+        return ResponseEntity.ok()
+                .eTag(CustomerETags.of(content))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(page);
+    }
+
+    // Ids that do not exist are listed in missingIds instead of failing the whole lookup
+    @GetMapping(params = "ids")
+    public ResponseEntity<CustomerLookupResult> getCustomersByIds(@RequestParam(name = "ids") List<Long> ids) {
+        if (ids.size() > MAX_PAGE_SIZE)
+            throw new InvalidCustomerLookupException("At most " + MAX_PAGE_SIZE + " ids can be looked up at once");
+
+        CustomerLookupResult result = customerService.getCustomersByIds(ids);
+
+        return ResponseEntity.ok()
+                .eTag(CustomerETags.of(result.getContent()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(result);
+    }
+
+    @GetMapping(path = "/search")
+    public ResponseEntity<CustomerSearchPage> searchCustomers(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "20") int size
+    ) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE);
+
+        CustomerSearchPage result = customerService.searchCustomers(query, Math.max(page, 0), pageSize);
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCustomersAsNdjson() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                customerService.exportCustomers(customer -> {
+                    writeCustomer(generator, customer);
+                    writeNewLine(generator);
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCustomersAsJsonArray() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                customerService.exportCustomers(customer -> writeCustomer(generator, customer));
+                generator.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @PostMapping
@@ -33,44 +144,104 @@ public class CustomerController {
 
         Customer createdCustomer = customerService.createCustomer(customerToCreate);
 
-        return new ResponseEntity<>(customerMapper.toCustomerDto(createdCustomer), HttpStatus.CREATED);
+        return withETag(HttpStatus.CREATED, customerMapper.toCustomerDto(createdCustomer));
+    }
+
+    @PostMapping(path = "/batch")
+    public ResponseEntity<List<BatchItemResultDto>> createCustomers(@RequestBody List<CreateCustomerRequest> createCustomerRequests) {
+        List<Customer> customersToCreate = createCustomerRequests.stream()
+                .map(customerMapper::toCustomerToCreate)
+                .toList();
+
+        List<BatchItemResultDto> results = customerService.createCustomers(customersToCreate)
+                .stream()
+                .map(customerMapper::toBatchItemResultDto)
+                .toList();
+
+        return new ResponseEntity<>(results, HttpStatus.OK);
     }
 
     @GetMapping(path = "/{id}")
     public ResponseEntity<CustomerDto> getCustomerById(@PathVariable("id") Long id) {
-        Customer foundCustomer = customerService.getCustomerById(id);
+        CustomerDto foundCustomer = customerLookupCoalescer == null
+                ? customerService.getCustomerById(id)
+                : customerLookupCoalescer.getCustomerById(id);
 
-        return new ResponseEntity<>(customerMapper.toCustomerDto(foundCustomer), HttpStatus.OK);
+        return withETag(HttpStatus.OK, foundCustomer);
     }
 
     @PutMapping(path = "/{id}")
     public ResponseEntity<CustomerDto> fullUpdateCustomer(
             @PathVariable("id") Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody UpdateCustomerRequest updateCustomerRequest
     ) {
         Customer customerToUpdate = customerMapper.toCustomerToUpdate(updateCustomerRequest);
 
-        Customer updatedCustomer = customerService.fullUpdateCustomer(id, customerToUpdate);
+        CustomerDto updatedCustomer = customerService.fullUpdateCustomer(id, CustomerETags.expectedVersion(ifMatch), customerToUpdate);
 
-        return new ResponseEntity<>(customerMapper.toCustomerDto(updatedCustomer), HttpStatus.OK);
+        return withETag(HttpStatus.OK, updatedCustomer);
     }
 
     @PatchMapping(path = "/{id}")
     public ResponseEntity<CustomerDto> partialUpdateCustomer(
             @PathVariable("id") Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody UpdateCustomerRequest updateCustomerRequest
     ) {
         Customer customerToUpdate = customerMapper.toCustomerToUpdate(updateCustomerRequest);
 
-        Customer updatedCustomer = customerService.partialUpdate(id, customerToUpdate);
+        CustomerDto updatedCustomer = customerService.partialUpdate(id, CustomerETags.expectedVersion(ifMatch), customerToUpdate);
 
-        return new ResponseEntity<>(customerMapper.toCustomerDto(updatedCustomer), HttpStatus.OK);
+        return withETag(HttpStatus.OK, updatedCustomer);
+    }
+
+    @PatchMapping
+    public ResponseEntity<List<BatchItemResultDto>> partialUpdateCustomers(
+            @RequestBody List<BatchUpdateCustomerRequest> batchUpdateCustomerRequests
+    ) {
+        List<Customer> customersToUpdate = batchUpdateCustomerRequests.stream()
+                .map(customerMapper::toCustomerToUpdate)
+                .toList();
+
+        List<BatchItemResultDto> results = customerService.partialUpdateCustomers(customersToUpdate)
+                .stream()
+                .map(customerMapper::toBatchItemResultDto)
+                .toList();
+
+        return new ResponseEntity<>(results, HttpStatus.OK);
     }
 
     @DeleteMapping(path = "/{id}")
-    public ResponseEntity<Void> deleteCustomer(@PathVariable("id") Long id) {
-        customerService.deleteCustomer(id);
+    public ResponseEntity<Void> deleteCustomer(
+            @PathVariable("id") Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        customerService.deleteCustomer(id, CustomerETags.expectedVersion(ifMatch));
 
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    private static ResponseEntity<CustomerDto> withETag(HttpStatus status, CustomerDto customer) {
+        return ResponseEntity.status(status)
+                .eTag(CustomerETags.of(customer))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(customer);
+    }
+
+    private void writeCustomer(JsonGenerator generator, CustomerDto customer) {
+        try {
+            generator.writeObject(customer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeNewLine(JsonGenerator generator) {
+        try {
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
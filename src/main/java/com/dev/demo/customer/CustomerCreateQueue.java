@@ -0,0 +1,194 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.CustomerCreateRejectedException;
+import com.dev.demo.exception.CustomerCreateUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Creates are accepted into a bounded in-memory queue and written by a single batcher
+// thread through createCustomers, so everything that piled up while one batch was being
+// written goes out as the next JDBC batch. Queued creates survive a graceful shutdown,
+// which drains the queue, but not a crash.
+@Slf4j
+public class CustomerCreateQueue implements SmartLifecycle {
+
+    public static final String QUEUE_SIZE_METRIC = "customer.create.queue.size";
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final CustomerService customerService;
+
+    private final CustomerMapper customerMapper;
+
+    private final BlockingQueue<PendingCreate> queue;
+
+    private final int maxBatchSize;
+
+    private final Duration drainTimeout;
+
+    private final Cache<String, CustomerCreateStatusDto> statuses;
+
+    private volatile boolean running;
+
+    private Thread batcher;
+
+    public CustomerCreateQueue(
+            CustomerService customerService,
+            CustomerMapper customerMapper,
+            CustomerCreateQueueProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.customerService = customerService;
+        this.customerMapper = customerMapper;
+        this.queue = new ArrayBlockingQueue<>(properties.capacity());
+        this.maxBatchSize = properties.maxBatchSize();
+        this.drainTimeout = properties.drainTimeout();
+        // Retention alone would let the statuses grow with throughput, so they are capped as well
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(properties.statusRetention())
+                .maximumSize(properties.maxStatuses())
+                .build();
+
+        meterRegistry.gauge(QUEUE_SIZE_METRIC, queue, BlockingQueue::size);
+    }
+
+    public CustomerCreateStatusDto enqueue(Customer customerToCreate) {
+        // Shutting down is not the client's fault, so it is told to go elsewhere rather than slow down
+        if (!running)
+            throw new CustomerCreateUnavailableException("Customer creation queue is shutting down, please retry");
+
+        String id = UUID.randomUUID().toString();
+        CustomerCreateStatusDto pending = CustomerCreateStatusDto.builder()
+                .id(id)
+                .status(CustomerCreateStatus.PENDING)
+                .build();
+
+        // Recorded before the offer so the batcher can never be overwritten by PENDING
+        statuses.put(id, pending);
+        if (!queue.offer(new PendingCreate(id, customerToCreate))) {
+            statuses.invalidate(id);
+            throw new CustomerCreateRejectedException("Customer creation queue is full, please retry later");
+        }
+
+        return pending;
+    }
+
+    public Optional<CustomerCreateStatusDto> getStatus(String id) {
+        return Optional.ofNullable(statuses.getIfPresent(id));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        batcher = new Thread(this::runBatches, "customer-create-batcher");
+        batcher.setDaemon(true);
+        batcher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+
+        try {
+            batcher.join(drainTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (batcher.isAlive()) {
+            batcher.interrupt();
+            log.warn("Customer creation queue stopped with {} creates not written", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stops after the web server, so no request can enqueue while the queue drains
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    private void runBatches() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCreate first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingCreate> batch) {
+        List<BatchItemResult> results;
+        try {
+            results = customerService.createCustomers(batch.stream().map(PendingCreate::customer).toList());
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                // One bad create must not take the rest of the batch down with it
+                log.warn("Failed to write {} queued customers, retrying one by one: {}", batch.size(), e.toString());
+                batch.forEach(pending -> write(List.of(pending)));
+                return;
+            }
+
+            String id = batch.get(0).id();
+            log.error("Failed to write queued customer {}: {}", id, e.toString());
+            statuses.put(id, CustomerCreateStatusDto.builder()
+                    .id(id)
+                    .status(CustomerCreateStatus.FAILED)
+                    .message("Customer could not be created, please retry")
+                    .build());
+            return;
+        }
+
+        for (BatchItemResult result : results) {
+            String id = batch.get(result.getIndex()).id();
+            Customer customer = result.getCustomer();
+
+            statuses.put(id, CustomerCreateStatusDto.builder()
+                    .id(id)
+                    .status(switch (result.getStatus()) {
+                        case CREATED -> CustomerCreateStatus.CREATED;
+                        case CONFLICT -> CustomerCreateStatus.CONFLICT;
+                        // Update statuses; createCustomers never reports them
+                        case UPDATED, NOT_FOUND, VERSION_MISMATCH -> CustomerCreateStatus.FAILED;
+                    })
+                    .customer(customer == null ? null : customerMapper.toCustomerDto(customer))
+                    .message(result.getMessage())
+                    .build());
+        }
+    }
+
+    private record PendingCreate(String id, Customer customer) {
+    }
+}
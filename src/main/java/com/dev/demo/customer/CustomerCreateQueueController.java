@@ -0,0 +1,56 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.CustomerNotFoundException;
+import com.dev.demo.web.RequiresPreference;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+// Only requests preferring respond-async, alone or among other preferences, are queued;
+// all others keep the synchronous create
+@RestController
+@RequestMapping(path = "/api/v1/customers")
+@ConditionalOnProperty(prefix = "app.customer.create-queue", name = "enabled", havingValue = "true")
+public class CustomerCreateQueueController {
+
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+
+    private static final String RESPOND_ASYNC = "respond-async";
+
+    private final CustomerCreateQueue customerCreateQueue;
+
+    private final CustomerMapper customerMapper;
+
+    public CustomerCreateQueueController(CustomerCreateQueue customerCreateQueue, CustomerMapper customerMapper) {
+        this.customerCreateQueue = customerCreateQueue;
+        this.customerMapper = customerMapper;
+    }
+
+    @PostMapping
+    @RequiresPreference(RESPOND_ASYNC)
+    public ResponseEntity<CustomerCreateStatusDto> createCustomerAsync(@RequestBody CreateCustomerRequest createCustomerRequest) {
+        Customer customerToCreate = customerMapper.toCustomerToCreate(createCustomerRequest);
+
+        CustomerCreateStatusDto status = customerCreateQueue.enqueue(customerToCreate);
+
+        URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/creations/{id}")
+                .buildAndExpand(status.getId())
+                .toUri();
+
+        return ResponseEntity.accepted()
+                .location(location)
+                .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                .body(status);
+    }
+
+    @GetMapping(path = "/creations/{id}")
+    public ResponseEntity<CustomerCreateStatusDto> getCreateStatus(@PathVariable("id") String id) {
+        return customerCreateQueue.getStatus(id)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new CustomerNotFoundException("Customer creation not found with id " + id));
+    }
+}
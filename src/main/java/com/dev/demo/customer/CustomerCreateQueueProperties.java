@@ -0,0 +1,17 @@
+package com.dev.demo.customer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.customer.create-queue")
+public record CustomerCreateQueueProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10000") int capacity,
+        @DefaultValue("500") int maxBatchSize,
+        @DefaultValue("30s") Duration drainTimeout,
+        @DefaultValue("10m") Duration statusRetention,
+        @DefaultValue("100000") long maxStatuses
+) {
+}
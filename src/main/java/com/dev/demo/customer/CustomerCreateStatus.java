@@ -0,0 +1,8 @@
+package com.dev.demo.customer;
+
+public enum CustomerCreateStatus {
+    PENDING,
+    CREATED,
+    CONFLICT,
+    FAILED
+}
@@ -0,0 +1,19 @@
+package com.dev.demo.customer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomerCreateStatusDto {
+    private String id;
+    private CustomerCreateStatus status;
+    private CustomerDto customer;
+    private String message;
+}
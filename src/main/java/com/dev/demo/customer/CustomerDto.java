@@ -1,5 +1,6 @@
 package com.dev.demo.customer;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,4 +15,8 @@ public class CustomerDto {
     private String name;
     private String email;
     private String address;
+
+    // Sent as the ETag header rather than in the body
+    @JsonIgnore
+    private Long version;
 }
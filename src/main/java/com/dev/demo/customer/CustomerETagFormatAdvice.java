@@ -0,0 +1,77 @@
+package com.dev.demo.customer;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The format is only chosen after the controller returns, so this is where a strong ETag
+// learns it. Spring's If-None-Match check ran against the plain tag before that, so it is
+// repeated here for the formats that change the tag
+@ControllerAdvice(assignableTypes = CustomerController.class)
+class CustomerETagFormatAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response
+    ) {
+        HttpHeaders headers = response.getHeaders();
+        if (!headers.getVary().contains(HttpHeaders.ACCEPT))
+            headers.setVary(append(headers.getVary(), HttpHeaders.ACCEPT));
+
+        String eTag = headers.getETag();
+        if (eTag == null)
+            return body;
+
+        String formatETag = CustomerETags.forFormat(eTag, selectedContentType);
+        if (formatETag.equals(eTag))
+            return body;
+
+        setETag(response, formatETag);
+        if ((request.getMethod() == HttpMethod.GET || request.getMethod() == HttpMethod.HEAD)
+                && CustomerETags.matchesAny(request.getHeaders().getIfNoneMatch(), formatETag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return null;
+        }
+
+        return body;
+    }
+
+    // For GET and HEAD, Spring's conditional check has already written the plain tag to the
+    // servlet response, where a header added here would only be sent next to it
+    private static void setETag(ServerHttpResponse response, String eTag) {
+        if (!(response instanceof ServletServerHttpResponse servletResponse)) {
+            response.getHeaders().setETag(eTag);
+            return;
+        }
+
+        response.getHeaders().remove(HttpHeaders.ETAG);
+        servletResponse.getServletResponse().setHeader(HttpHeaders.ETAG, eTag);
+    }
+
+    private static List<String> append(List<String> values, String value) {
+        List<String> appended = new ArrayList<>(values);
+        appended.add(value);
+        return appended;
+    }
+}
@@ -0,0 +1,96 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.CustomerVersionMismatchException;
+import org.springframework.http.ETag;
+import org.springframework.http.MediaType;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+// A customer's ETag is its version. Every change bumps the version, so a list ETag
+// only has to digest the ids and versions it contains; it uses SHA-256, since a collision
+// would answer 304 for a different list. JSON bodies carry the plain tag; a strong tag on
+// any other format names the format too, since the bytes differ. List tags are weak:
+// lists are the bodies large enough to be gzipped, and Tomcat refuses to compress a
+// response with a strong ETag
+final class CustomerETags {
+
+    private static final char FORMAT_SEPARATOR = '-';
+
+    private static final int LIST_TAG_BYTES = 16;
+
+    private CustomerETags() {
+    }
+
+    static String of(CustomerDto customer) {
+        return customer.getVersion() == null ? null : "\"" + customer.getVersion() + "\"";
+    }
+
+    // Fixed-width pairs, so no two lists feed the digest the same bytes
+    static String of(List<CustomerDto> customers) {
+        MessageDigest digest = sha256();
+        ByteBuffer pair = ByteBuffer.allocate(2 * Long.BYTES);
+        for (CustomerDto customer : customers) {
+            pair.clear();
+            pair.putLong(customer.getId());
+            pair.putLong(customer.getVersion() == null ? -1 : customer.getVersion());
+            digest.update(pair.array());
+        }
+
+        return "W/\"" + HexFormat.of().formatHex(digest.digest(), 0, LIST_TAG_BYTES) + "\"";
+    }
+
+    // Weak tags only promise the same content, which every format carries
+    static String forFormat(String eTag, MediaType contentType) {
+        if (contentType == null || eTag.startsWith("W/") || contentType.isCompatibleWith(MediaType.APPLICATION_JSON))
+            return eTag;
+
+        return eTag.substring(0, eTag.length() - 1) + FORMAT_SEPARATOR + contentType.getSubtype() + "\"";
+    }
+
+    // If-None-Match uses the weak comparison, so W/ prefixes are ignored on both sides
+    static boolean matchesAny(List<String> ifNoneMatch, String eTag) {
+        ETag current = ETag.create(eTag);
+        for (String header : ifNoneMatch) {
+            for (ETag candidate : ETag.parse(header)) {
+                if (candidate.isWildcard() || candidate.tag().equals(current.tag()))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // A missing header or "*" leaves the write unconditional
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null)
+            return null;
+
+        List<ETag> eTags = ETag.parse(ifMatch);
+        if (eTags.size() == 1 && eTags.get(0).isWildcard())
+            return null;
+
+        if (eTags.size() != 1 || eTags.get(0).weak())
+            throw new CustomerVersionMismatchException("If-Match must be a single strong ETag");
+
+        // Any format's tag of the same version matches
+        String tag = eTags.get(0).tag();
+        int format = tag.indexOf(FORMAT_SEPARATOR);
+
+        try {
+            return Long.valueOf(format < 0 ? tag : tag.substring(0, format));
+        } catch (NumberFormatException e) {
+            throw new CustomerVersionMismatchException("If-Match " + ifMatch + " is not a customer ETag");
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.CustomerNotFoundException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Single-id lookups that miss the customer cache are queued for a single dispatcher thread,
+// which waits up to the window for more lookups and resolves them all with one IN query.
+// Lookups arriving while a batch is being read go out in the next one, so under load the
+// batches grow towards the maximum size on their own and the window only matters when idle.
+// A lookup that waits longer than the timeout, or outlives the dispatcher, is answered by a
+// direct read instead.
+@Slf4j
+public class CustomerLookupCoalescer implements SmartLifecycle {
+
+    public static final String BATCH_SIZE_METRIC = "customer.lookup.batch.size";
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final CustomerService customerService;
+
+    private final Cache customersCache;
+
+    private final BlockingQueue<PendingLookup> queue = new LinkedBlockingQueue<>();
+
+    private final long windowNanos;
+
+    private final int maxBatchSize;
+
+    private final long timeoutNanos;
+
+    private final DistributionSummary batchSizes;
+
+    // Counts committed updates and deletes, so a batch can tell that one landed while it was read
+    private final AtomicLong writes = new AtomicLong();
+
+    private volatile boolean running;
+
+    private Thread dispatcher;
+
+    public CustomerLookupCoalescer(
+            CustomerService customerService,
+            Cache customersCache,
+            CustomerLookupCoalescerProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.customerService = customerService;
+        this.customersCache = customersCache;
+        this.windowNanos = properties.window().toNanos();
+        this.maxBatchSize = properties.maxBatchSize();
+        this.timeoutNanos = properties.timeout().toNanos();
+        this.batchSizes = DistributionSummary.builder(BATCH_SIZE_METRIC)
+                .description("Customer ids resolved per coalesced lookup query")
+                .register(meterRegistry);
+    }
+
+    public CustomerDto getCustomerById(Long id) {
+        CustomerDto cached = customersCache.get(id, CustomerDto.class);
+        if (cached != null)
+            return cached;
+
+        if (!running)
+            return customerService.getCustomerById(id);
+
+        PendingLookup pending = new PendingLookup(id, new CompletableFuture<>());
+        queue.add(pending);
+
+        // The dispatcher may have drained its last batch between the check and the add
+        if (!running && queue.remove(pending))
+            return customerService.getCustomerById(id);
+
+        CustomerDto customer;
+        try {
+            customer = pending.result().get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | CancellationException e) {
+            // Stuck or stopped dispatcher; a lookup it already took may still complete unseen
+            queue.remove(pending);
+            return customerService.getCustomerById(id);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            if (e.getCause() instanceof Error cause)
+                throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.remove(pending);
+            throw new IllegalStateException("Interrupted while looking up customer " + id, e);
+        }
+
+        if (customer == null)
+            throw new CustomerNotFoundException("Customer not found with id " + id);
+
+        return customer;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        dispatcher = new Thread(this::runBatches, "customer-lookup-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    // Lookups already queued are still answered before the dispatcher exits
+    @Override
+    public void stop() {
+        running = false;
+
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stops after the web server, so no request is left waiting on a stopped dispatcher
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    // The service evicts on write as well, but a batch that read the old row before the commit
+    // could put it back after that eviction; this one runs after the commit, so it cannot be undone
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.type() == CustomerChangeType.CREATED)
+            return;
+
+        writes.incrementAndGet();
+        customersCache.evict(event.id());
+    }
+
+    private void runBatches() {
+        List<PendingLookup> batch = new ArrayList<>(maxBatchSize);
+
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingLookup first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null)
+                        continue;
+
+                    batch.add(first);
+                    collect(batch, System.nanoTime() + windowNanos);
+                    resolve(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            if (running) {
+                log.error("Customer lookup dispatcher died, lookups go to the database directly");
+                running = false;
+            }
+
+            // Waiting lookups fall back to a direct read instead of waiting for their timeout
+            List<PendingLookup> abandoned = new ArrayList<>();
+            queue.drainTo(abandoned);
+            abandoned.forEach(pending -> pending.result().cancel(false));
+        }
+    }
+
+    private void collect(List<PendingLookup> batch, long deadline) throws InterruptedException {
+        queue.drainTo(batch, maxBatchSize - batch.size());
+
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0)
+                return;
+
+            PendingLookup next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null)
+                return;
+
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void resolve(List<PendingLookup> batch) {
+        Set<Long> ids = new LinkedHashSet<>();
+        batch.forEach(pending -> ids.add(pending.id()));
+        batchSizes.record(ids.size());
+
+        try {
+            long writesBefore = writes.get();
+
+            Map<Long, CustomerDto> customersById = new HashMap<>();
+            for (CustomerDto customer : customerService.getCustomersByIds(ids).getContent()) {
+                customersById.put(customer.getId(), customer);
+                customersCache.put(customer.getId(), customer);
+            }
+
+            // A write committed during the read may have been evicted before the put above
+            if (writes.get() != writesBefore)
+                customersById.keySet().forEach(customersCache::evict);
+
+            batch.forEach(pending -> pending.result().complete(customersById.get(pending.id())));
+        } catch (Throwable e) {
+            log.error("Failed to look up {} customers: {}", ids.size(), e.toString());
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+
+            // Errors still end the dispatcher, which then hands the queue to the direct path
+            if (e instanceof Error error)
+                throw error;
+        }
+    }
+
+    private record PendingLookup(Long id, CompletableFuture<CustomerDto> result) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.dev.demo.customer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.customer.lookup-coalescer")
+public record CustomerLookupCoalescerProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("2ms") Duration window,
+        @DefaultValue("100") int maxBatchSize,
+        @DefaultValue("5s") Duration timeout
+) {
+}
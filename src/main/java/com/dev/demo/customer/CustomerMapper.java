@@ -11,6 +11,7 @@ public class CustomerMapper {
                 .name(customer.getName())
                 .email(customer.getEmail())
                 .address(customer.getAddress())
+                .version(customer.getVersion())
                 .build();
     }
 
@@ -29,4 +30,24 @@ public class CustomerMapper {
                 .address(updateCustomerRequest.getAddress())
                 .build();
     }
+
+    public Customer toCustomerToUpdate(BatchUpdateCustomerRequest batchUpdateCustomerRequest) {
+        UpdateCustomerRequest changes = batchUpdateCustomerRequest.getChanges();
+
+        Customer customer = changes == null ? new Customer() : toCustomerToUpdate(changes);
+        customer.setId(batchUpdateCustomerRequest.getId());
+        customer.setVersion(batchUpdateCustomerRequest.getVersion());
+        return customer;
+    }
+
+    public BatchItemResultDto toBatchItemResultDto(BatchItemResult batchItemResult) {
+        Customer customer = batchItemResult.getCustomer();
+
+        return BatchItemResultDto.builder()
+                .index(batchItemResult.getIndex())
+                .status(batchItemResult.getStatus())
+                .customer(customer == null ? null : toCustomerDto(customer))
+                .message(batchItemResult.getMessage())
+                .build();
+    }
 }
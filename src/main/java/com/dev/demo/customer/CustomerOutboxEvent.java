@@ -0,0 +1,38 @@
+package com.dev.demo.customer;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@Builder
+@Entity
+@Table(name = "customer_outbox")
+public class CustomerOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_outbox_seq")
+    @SequenceGenerator(name = "customer_outbox_seq", sequenceName = "customer_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CustomerChangeType type;
+
+    private Long customerVersion;
+
+    // The customer as JSON, null for deletes
+    @Column(length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,15 @@
+package com.dev.demo.customer;
+
+import java.time.Instant;
+
+// The id is unique per change and doubles as an idempotency key for consumers; it is not a
+// commit order, so changes to one customer are ordered by customerVersion instead
+public record CustomerOutboxMessage(
+        long id,
+        Long customerId,
+        CustomerChangeType type,
+        Long customerVersion,
+        String payload,
+        Instant createdAt
+) {
+}
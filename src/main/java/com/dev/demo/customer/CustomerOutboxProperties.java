@@ -0,0 +1,16 @@
+package com.dev.demo.customer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.customer.outbox")
+public record CustomerOutboxProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("500ms") Duration pollInterval,
+        @DefaultValue("5s") Duration retryBackoff,
+        @DefaultValue("customer-outbox.ndjson") String file
+) {
+}
@@ -0,0 +1,160 @@
+package com.dev.demo.customer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Moves outbox rows to the sink in batches. Each batch is locked with SKIP LOCKED, handed
+// to the sink and deleted in one transaction, so a failing sink or a crash leaves the rows
+// in place and they are delivered again: delivery is at least once. Relays on other
+// instances skip the locked rows and deliver their own batches at the same time, so there
+// is no order across batches; see CustomerOutboxSink for what consumers must do. Full
+// batches are relayed back to back; the relay only sleeps once it has caught up.
+@Slf4j
+public class CustomerOutboxRelay implements SmartLifecycle {
+
+    public static final String RELAYED_METRIC = "customer.outbox.relayed";
+
+    public static final String FAILURES_METRIC = "customer.outbox.failures";
+
+    public static final String LAG_METRIC = "customer.outbox.lag";
+
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(30);
+
+    private final CustomerOutboxRepository customerOutboxRepository;
+
+    private final CustomerOutboxSink customerOutboxSink;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final Duration pollInterval;
+
+    private final Duration retryBackoff;
+
+    private final Counter relayed;
+
+    private final Counter failures;
+
+    private final Timer lag;
+
+    private volatile boolean running;
+
+    private CountDownLatch stopSignal;
+
+    private Thread relay;
+
+    public CustomerOutboxRelay(
+            CustomerOutboxRepository customerOutboxRepository,
+            CustomerOutboxSink customerOutboxSink,
+            TransactionTemplate transactionTemplate,
+            CustomerOutboxProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.customerOutboxRepository = customerOutboxRepository;
+        this.customerOutboxSink = customerOutboxSink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = properties.batchSize();
+        this.pollInterval = properties.pollInterval();
+        this.retryBackoff = properties.retryBackoff();
+        this.relayed = meterRegistry.counter(RELAYED_METRIC);
+        this.failures = meterRegistry.counter(FAILURES_METRIC);
+        // Time from the customer write to the hand-off to the sink
+        this.lag = Timer.builder(LAG_METRIC)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        stopSignal = new CountDownLatch(1);
+        running = true;
+        relay = new Thread(this::runRelay, "customer-outbox-relay");
+        relay.setDaemon(true);
+        relay.start();
+    }
+
+    // Wakes the relay if it is waiting and lets the batch in flight finish; rows still in the
+    // outbox are relayed after the next start
+    @Override
+    public void stop() {
+        running = false;
+        stopSignal.countDown();
+
+        try {
+            relay.join(STOP_TIMEOUT.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (relay.isAlive()) {
+            relay.interrupt();
+            log.warn("Customer outbox relay did not finish its batch within {}", STOP_TIMEOUT);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stops after the create queue, which may still be writing customers while it drains
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    int relayBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<CustomerOutboxEvent> batch = customerOutboxRepository.lockNextBatch(Limit.of(batchSize));
+            if (batch.isEmpty())
+                return 0;
+
+            customerOutboxSink.publish(batch.stream()
+                    .map(event -> new CustomerOutboxMessage(event.getId(), event.getCustomerId(), event.getType(),
+                            event.getCustomerVersion(), event.getPayload(), event.getCreatedAt()))
+                    .toList());
+
+            Instant now = Instant.now();
+            batch.forEach(event -> lag.record(Duration.between(event.getCreatedAt(), now)));
+
+            customerOutboxRepository.deleteByIdIn(batch.stream().map(CustomerOutboxEvent::getId).toList());
+            return batch.size();
+        });
+
+        relayed.increment(count);
+        return count;
+    }
+
+    private void runRelay() {
+        try {
+            while (running) {
+                try {
+                    if (relayBatch() < batchSize)
+                        pause(pollInterval);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    log.warn("Failed to relay customer outbox, retrying in {}: {}", retryBackoff, e.toString());
+                    pause(retryBackoff);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void pause(Duration duration) throws InterruptedException {
+        stopSignal.await(duration.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
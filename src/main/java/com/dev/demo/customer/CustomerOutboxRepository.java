@@ -0,0 +1,26 @@
+package com.dev.demo.customer;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CustomerOutboxRepository extends JpaRepository<CustomerOutboxEvent, Long> {
+
+    // A lock timeout of -2 is Hibernate's SKIP LOCKED, so concurrent relays take disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("select e from CustomerOutboxEvent e order by e.id")
+    List<CustomerOutboxEvent> lockNextBatch(Limit limit);
+
+    @Modifying
+    @Query("delete from CustomerOutboxEvent e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,30 @@
+package com.dev.demo.customer;
+
+import java.util.List;
+
+/**
+ * Receives relayed outbox messages. Delivery is at least once and is not ordered across
+ * batches, so every sink and every consumer behind it has to cope with both.
+ * <p>
+ * Duplicates: throwing from {@link #publish} leaves the whole batch in the outbox, and the
+ * batch is delivered again, including messages the sink had already passed on. The same
+ * happens when publish succeeds but the relay's transaction fails to commit afterwards,
+ * for example after a crash or a lost database connection. A message is identified by
+ * {@link CustomerOutboxMessage#id()}, which is unique per change and the same on every
+ * redelivery. Consumers deduplicate on it, or apply changes idempotently.
+ * <p>
+ * Ordering: each batch is in id order, but ids come from a pooled sequence and say nothing
+ * about commit order. Relays on several instances also lock disjoint batches and publish
+ * them concurrently, and a retried batch arrives after later ones. Two changes to one
+ * customer can therefore arrive in either order. Consumers order them by
+ * {@link CustomerOutboxMessage#customerVersion()} per customer and drop a change whose
+ * version is not newer than the one they already applied. A delete is final, since customer
+ * ids are never reused. Deletes carry no version, and neither do full updates made without
+ * an expected version; a consumer that needs the current state after one of those reads
+ * the customer again. A sink that needs strict per-customer order on its own has to
+ * partition by customer id downstream, for example by keying messages on it.
+ */
+public interface CustomerOutboxSink {
+
+    void publish(List<CustomerOutboxMessage> messages);
+}
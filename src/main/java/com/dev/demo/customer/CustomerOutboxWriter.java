@@ -0,0 +1,43 @@
+package com.dev.demo.customer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+// Runs synchronously inside the transaction that publishes the change, so the outbox row
+// commits or rolls back together with the customer write
+public class CustomerOutboxWriter {
+
+    private final CustomerOutboxRepository customerOutboxRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public CustomerOutboxWriter(CustomerOutboxRepository customerOutboxRepository, ObjectMapper objectMapper) {
+        this.customerOutboxRepository = customerOutboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        CustomerDto customer = event.customer();
+
+        customerOutboxRepository.save(CustomerOutboxEvent.builder()
+                .customerId(event.id())
+                .type(event.type())
+                .customerVersion(customer == null ? null : customer.getVersion())
+                .payload(customer == null ? null : toJson(customer))
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    private String toJson(CustomerDto customer) {
+        try {
+            return objectMapper.writeValueAsString(customer);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.dev.demo.customer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CustomerPage {
+    private List<CustomerDto> content;
+    private Long nextCursor;
+}
@@ -0,0 +1,172 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.ApiErrorResponse;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Hand-written encoding of the messages in proto/customer.proto, so the DTOs are written
+// and read directly instead of being copied into generated message classes first.
+// Null fields are left out, which proto3 optional fields read back as absent
+public final class CustomerProtobufCodec {
+
+    private static final int CUSTOMER_ID = 1;
+    private static final int CUSTOMER_NAME = 2;
+    private static final int CUSTOMER_EMAIL = 3;
+    private static final int CUSTOMER_ADDRESS = 4;
+
+    private static final int REQUEST_NAME = 1;
+    private static final int REQUEST_EMAIL = 2;
+    private static final int REQUEST_ADDRESS = 3;
+
+    // CustomerList.customers, CustomerPage.content and CustomerLookupResult.content
+    private static final int CUSTOMERS = 1;
+    private static final int PAGE_NEXT_CURSOR = 2;
+    private static final int LOOKUP_MISSING_IDS = 2;
+
+    private static final int ERROR_STATUS = 1;
+    private static final int ERROR_MESSAGE = 2;
+
+    private CustomerProtobufCodec() {
+    }
+
+    public static void writeCustomer(CustomerDto customer, CodedOutputStream output) throws IOException {
+        if (customer.getId() != null)
+            output.writeInt64(CUSTOMER_ID, customer.getId());
+        writeString(output, CUSTOMER_NAME, customer.getName());
+        writeString(output, CUSTOMER_EMAIL, customer.getEmail());
+        writeString(output, CUSTOMER_ADDRESS, customer.getAddress());
+    }
+
+    public static void writeCustomers(List<CustomerDto> customers, CodedOutputStream output) throws IOException {
+        for (CustomerDto customer : customers) {
+            output.writeTag(CUSTOMERS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(customerSize(customer));
+            writeCustomer(customer, output);
+        }
+    }
+
+    public static void writeCustomerPage(CustomerPage page, CodedOutputStream output) throws IOException {
+        writeCustomers(page.getContent(), output);
+        if (page.getNextCursor() != null)
+            output.writeInt64(PAGE_NEXT_CURSOR, page.getNextCursor());
+    }
+
+    public static void writeLookupResult(CustomerLookupResult result, CodedOutputStream output) throws IOException {
+        writeCustomers(result.getContent(), output);
+
+        List<Long> missingIds = result.getMissingIds();
+        if (missingIds == null || missingIds.isEmpty())
+            return;
+
+        // Repeated scalars are packed into one length-delimited field, as proto3 does by default
+        int size = 0;
+        for (Long id : missingIds)
+            size += CodedOutputStream.computeInt64SizeNoTag(id);
+
+        output.writeTag(LOOKUP_MISSING_IDS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(size);
+        for (Long id : missingIds)
+            output.writeInt64NoTag(id);
+    }
+
+    public static void writeErrorResponse(ApiErrorResponse errorResponse, CodedOutputStream output) throws IOException {
+        if (errorResponse.getStatus() != 0)
+            output.writeInt32(ERROR_STATUS, errorResponse.getStatus());
+        writeString(output, ERROR_MESSAGE, errorResponse.getMessage());
+    }
+
+    public static CustomerDto readCustomer(CodedInputStream input) throws IOException {
+        CustomerDto customer = new CustomerDto();
+
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (tag == tag(CUSTOMER_ID, WireFormat.WIRETYPE_VARINT))
+                customer.setId(input.readInt64());
+            else if (tag == tag(CUSTOMER_NAME, WireFormat.WIRETYPE_LENGTH_DELIMITED))
+                customer.setName(input.readString());
+            else if (tag == tag(CUSTOMER_EMAIL, WireFormat.WIRETYPE_LENGTH_DELIMITED))
+                customer.setEmail(input.readString());
+            else if (tag == tag(CUSTOMER_ADDRESS, WireFormat.WIRETYPE_LENGTH_DELIMITED))
+                customer.setAddress(input.readString());
+            else
+                input.skipField(tag);
+        }
+
+        return customer;
+    }
+
+    public static List<CustomerDto> readCustomers(CodedInputStream input) throws IOException {
+        List<CustomerDto> customers = new ArrayList<>();
+
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (tag != tag(CUSTOMERS, WireFormat.WIRETYPE_LENGTH_DELIMITED)) {
+                input.skipField(tag);
+                continue;
+            }
+
+            int limit = input.pushLimit(input.readRawVarint32());
+            customers.add(readCustomer(input));
+            input.popLimit(limit);
+        }
+
+        return customers;
+    }
+
+    public static CreateCustomerRequest readCreateCustomerRequest(CodedInputStream input) throws IOException {
+        CreateCustomerRequest request = new CreateCustomerRequest();
+        readRequestFields(input, request::setName, request::setEmail, request::setAddress);
+        return request;
+    }
+
+    public static UpdateCustomerRequest readUpdateCustomerRequest(CodedInputStream input) throws IOException {
+        UpdateCustomerRequest request = new UpdateCustomerRequest();
+        readRequestFields(input, request::setName, request::setEmail, request::setAddress);
+        return request;
+    }
+
+    private static void readRequestFields(
+            CodedInputStream input,
+            Consumer<String> name,
+            Consumer<String> email,
+            Consumer<String> address
+    ) throws IOException {
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (tag == tag(REQUEST_NAME, WireFormat.WIRETYPE_LENGTH_DELIMITED))
+                name.accept(input.readString());
+            else if (tag == tag(REQUEST_EMAIL, WireFormat.WIRETYPE_LENGTH_DELIMITED))
+                email.accept(input.readString());
+            else if (tag == tag(REQUEST_ADDRESS, WireFormat.WIRETYPE_LENGTH_DELIMITED))
+                address.accept(input.readString());
+            else
+                input.skipField(tag);
+        }
+    }
+
+    private static int customerSize(CustomerDto customer) {
+        int size = 0;
+        if (customer.getId() != null)
+            size += CodedOutputStream.computeInt64Size(CUSTOMER_ID, customer.getId());
+        size += stringSize(CUSTOMER_NAME, customer.getName());
+        size += stringSize(CUSTOMER_EMAIL, customer.getEmail());
+        size += stringSize(CUSTOMER_ADDRESS, customer.getAddress());
+        return size;
+    }
+
+    private static void writeString(CodedOutputStream output, int fieldNumber, String value) throws IOException {
+        if (value != null)
+            output.writeString(fieldNumber, value);
+    }
+
+    private static int stringSize(int fieldNumber, String value) {
+        return value == null ? 0 : CodedOutputStream.computeStringSize(fieldNumber, value);
+    }
+
+    private static int tag(int fieldNumber, int wireType) {
+        return fieldNumber << 3 | wireType;
+    }
+}
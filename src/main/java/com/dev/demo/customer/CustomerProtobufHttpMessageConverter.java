@@ -0,0 +1,112 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.ApiErrorResponse;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Set;
+
+// Reads and writes the customer bodies described in proto/customer.proto. Anything else,
+// such as the batch results, is not producible as protobuf and is answered with 406
+public class CustomerProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final Set<Class<?>> READABLE = Set.of(CreateCustomerRequest.class, UpdateCustomerRequest.class);
+
+    private static final Set<Class<?>> WRITABLE = Set.of(
+            CustomerDto.class, CustomerPage.class, CustomerLookupResult.class, ApiErrorResponse.class);
+
+    public CustomerProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return READABLE.contains(clazz) || WRITABLE.contains(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return READABLE.contains(clazz) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return type instanceof Class<?> clazz && canRead(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return WRITABLE.contains(clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return (WRITABLE.contains(clazz) || isCustomerList(type)) && canWrite(mediaType);
+    }
+
+    // Content negotiation asks by the value's class alone once canWrite(Type, ...) has
+    // vouched for its element type, and a List says nothing about what it holds
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : super.getSupportedMediaTypes(clazz);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal((Class<?>) type, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(inputMessage.getBody());
+
+        if (clazz == CreateCustomerRequest.class)
+            return CustomerProtobufCodec.readCreateCustomerRequest(input);
+        if (clazz == UpdateCustomerRequest.class)
+            return CustomerProtobufCodec.readUpdateCustomerRequest(input);
+
+        throw new HttpMessageNotReadableException("Cannot read " + clazz.getName() + " as protobuf", inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody());
+
+        if (body instanceof CustomerDto customer)
+            CustomerProtobufCodec.writeCustomer(customer, output);
+        else if (body instanceof CustomerPage page)
+            CustomerProtobufCodec.writeCustomerPage(page, output);
+        else if (body instanceof CustomerLookupResult result)
+            CustomerProtobufCodec.writeLookupResult(result, output);
+        else if (body instanceof ApiErrorResponse errorResponse)
+            CustomerProtobufCodec.writeErrorResponse(errorResponse, output);
+        else if (body instanceof List<?> customers)
+            CustomerProtobufCodec.writeCustomers((List<CustomerDto>) customers, output);
+        else
+            throw new HttpMessageNotWritableException("Cannot write " + body.getClass().getName() + " as protobuf");
+
+        output.flush();
+    }
+
+    private static boolean isCustomerList(Type type) {
+        if (type == null)
+            return false;
+
+        ResolvableType resolvableType = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolvableType.toClass())
+                && resolvableType.getGeneric(0).toClass() == CustomerDto.class;
+    }
+}
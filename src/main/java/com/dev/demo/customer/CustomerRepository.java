@@ -1,9 +1,99 @@
 package com.dev.demo.customer;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Read queries project straight into CustomerDto, so no entity is materialized
+// or tracked by the persistence context on the read paths.
+// Cached queries are dropped by Hibernate whenever the customers table is written
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Customer.QUERY_CACHE_REGION)
+    })
     boolean existsByEmail(String email);
+
+    @Query("select c.email from Customer c where c.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select new com.dev.demo.customer.CustomerDto(c.id, c.name, c.email, c.address, c.version) from Customer c")
+    List<CustomerDto> findAllDtos();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Customer.QUERY_CACHE_REGION)
+    })
+    @Query("select new com.dev.demo.customer.CustomerDto(c.id, c.name, c.email, c.address, c.version) from Customer c where c.id = :id")
+    Optional<CustomerDto> findDtoById(@Param("id") Long id);
+
+    @Query("select new com.dev.demo.customer.CustomerDto(c.id, c.name, c.email, c.address, c.version) from Customer c where c.id in :ids")
+    List<CustomerDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.dev.demo.customer.CustomerDto(c.id, c.name, c.email, c.address, c.version) from Customer c where c.id > :id order by c.id")
+    List<CustomerDto> findDtosAfterId(@Param("id") Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.dev.demo.customer.CustomerDto(c.id, c.name, c.email, c.address, c.version) from Customer c order by c.id")
+    Stream<CustomerDto> streamAllDtos();
+
+    // Email prefix matches rank first, then name prefix matches, then any other match
+    @Query("""
+            select new com.dev.demo.customer.CustomerDto(c.id, c.name, c.email, c.address, c.version)
+            from Customer c
+            where lower(c.name) like :pattern escape '!'
+               or lower(c.email) like :pattern escape '!'
+               or lower(c.address) like :pattern escape '!'
+            order by case
+                when lower(c.email) like :prefix escape '!' then 0
+                when lower(c.name) like :prefix escape '!' then 1
+                else 2
+            end, c.id
+            """)
+    Slice<CustomerDto> searchDtos(@Param("pattern") String pattern, @Param("prefix") String prefix, Pageable pageable);
+
+    @Modifying
+    @Query("""
+            update Customer c
+            set c.name = :name, c.email = :email, c.address = :address, c.version = c.version + 1
+            where c.id = :id and (:version is null or c.version = :version)
+            """)
+    int updateById(@Param("id") Long id,
+                   @Param("version") Long expectedVersion,
+                   @Param("name") String name,
+                   @Param("email") String email,
+                   @Param("address") String address);
+
+    @Modifying
+    @Query("""
+            update Customer c
+            set c.name = coalesce(:name, c.name),
+                c.email = coalesce(:email, c.email),
+                c.address = coalesce(:address, c.address),
+                c.version = c.version + 1
+            where c.id = :id and (:version is null or c.version = :version)
+            """)
+    int updateNonNullFieldsById(@Param("id") Long id,
+                                @Param("version") Long expectedVersion,
+                                @Param("name") String name,
+                                @Param("email") String email,
+                                @Param("address") String address);
+
+    @Modifying
+    @Query("delete from Customer c where c.id = :id and (:version is null or c.version = :version)")
+    int deleteCustomerById(@Param("id") Long id, @Param("version") Long expectedVersion);
 }
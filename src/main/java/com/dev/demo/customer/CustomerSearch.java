@@ -0,0 +1,18 @@
+package com.dev.demo.customer;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface CustomerSearch {
+
+    char LIKE_ESCAPE = '!';
+
+    // Matches customers whose name, email or address contain the query, best matches first
+    Slice<CustomerDto> search(String query, Pageable pageable);
+
+    static String escapeLike(String value) {
+        return value.replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+    }
+}
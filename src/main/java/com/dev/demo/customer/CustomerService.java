@@ -1,18 +1,32 @@
 package com.dev.demo.customer;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface CustomerService {
 
-    List<Customer> getAllCustomers();
+    List<CustomerDto> getAllCustomers();
+
+    void exportCustomers(Consumer<CustomerDto> consumer);
+
+    List<CustomerDto> getCustomersAfter(Long afterId, int limit);
 
     Customer createCustomer(Customer customerToCreate);
 
-    Customer getCustomerById(Long id);
+    List<BatchItemResult> createCustomers(List<Customer> customersToCreate);
+
+    CustomerDto getCustomerById(Long id);
+
+    CustomerLookupResult getCustomersByIds(Collection<Long> ids);
+
+    CustomerSearchPage searchCustomers(String query, int page, int size);
+
+    CustomerDto fullUpdateCustomer(Long id, Long expectedVersion, Customer customerToUpdate);
 
-    Customer fullUpdateCustomer(Long id, Customer customerToUpdate);
+    CustomerDto partialUpdate(Long id, Long expectedVersion, Customer customerToUpdate);
 
-    Customer partialUpdate(Long id, Customer customerToUpdate);
+    List<BatchItemResult> partialUpdateCustomers(List<Customer> customersToUpdate);
 
-    void deleteCustomer(Long id);
+    void deleteCustomer(Long id, Long expectedVersion);
 }
@@ -1,82 +1,496 @@
 package com.dev.demo.customer;
 
+import com.dev.demo.config.CacheConfig;
+import com.dev.demo.exception.ConstraintViolations;
 import com.dev.demo.exception.CustomerNotFoundException;
+import com.dev.demo.exception.CustomerVersionMismatchException;
 import com.dev.demo.exception.EmailAlreadyExistsException;
+import com.dev.demo.exception.InvalidSearchQueryException;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class CustomerServiceImpl implements CustomerService {
 
+    private static final int BATCH_CHUNK_SIZE = 1000;
+
+    // Trigram indexes cannot narrow down queries shorter than one trigram
+    private static final int MIN_SEARCH_QUERY_LENGTH = 3;
+
     private final CustomerRepository customerRepository;
 
-    public CustomerServiceImpl(CustomerRepository customerRepository) {
+    private final EntityManager entityManager;
+
+    private final CustomerSearch customerSearch;
+
+    private final EmailFingerprintIndex emailIndex;
+
+    private final CustomerMapper customerMapper;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public CustomerServiceImpl(
+            CustomerRepository customerRepository,
+            EntityManager entityManager,
+            CustomerSearch customerSearch,
+            EmailFingerprintIndex emailIndex,
+            CustomerMapper customerMapper,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager
+    ) {
         this.customerRepository = customerRepository;
+        this.entityManager = entityManager;
+        this.customerSearch = customerSearch;
+        this.emailIndex = emailIndex;
+        this.customerMapper = customerMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
-    public List<Customer> getAllCustomers() {
-        return customerRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<CustomerDto> getAllCustomers() {
+        return customerRepository.findAllDtos();
     }
 
+    // Rows are projected into DTOs, so the persistence context never holds them
     @Override
-    public Customer createCustomer(Customer customerToCreate) {
-        String email = customerToCreate.getEmail();
-        if (customerRepository.existsByEmail(email))
-            throw new EmailAlreadyExistsException("Email " + email + " already exists");
+    @Transactional(readOnly = true)
+    public void exportCustomers(Consumer<CustomerDto> consumer) {
+        try (Stream<CustomerDto> customers = customerRepository.streamAllDtos()) {
+            customers.forEach(consumer);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CustomerDto> getCustomersAfter(Long afterId, int limit) {
+        long after = afterId == null ? 0L : afterId;
 
-        return customerRepository.save(customerToCreate);
+        return customerRepository.findDtosAfterId(after, Limit.of(limit));
     }
 
     @Override
-    public Customer getCustomerById(Long id) {
-        return customerRepository.findById(id)
-                .orElseThrow(() -> new CustomerNotFoundException("Customer not found with id " + id));
+    public Customer createCustomer(Customer customerToCreate) {
+        Customer createdCustomer = writeWithUniqueEmail(customerToCreate.getEmail(),
+                () -> customerRepository.saveAndFlush(customerToCreate));
+
+        publishChange(CustomerChangeType.CREATED, createdCustomer);
+        return createdCustomer;
     }
 
+    // Each chunk costs one email lookup and a handful of JDBC insert batches, and commits in its
+    // own transaction, so a conflict found by the unique index only rolls back that chunk.
+    // Customers of chunks that already committed stay created if a later chunk fails otherwise
     @Override
-    public Customer fullUpdateCustomer(Long id, Customer customerToUpdate) {
-        Customer existingCustomer = getCustomerById(id);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BatchItemResult> createCustomers(List<Customer> customersToCreate) {
+        List<BatchItemResult> results = new ArrayList<>(customersToCreate.size());
+        Set<String> seenEmails = new HashSet<>();
+
+        for (int from = 0; from < customersToCreate.size(); from += BATCH_CHUNK_SIZE) {
+            List<Customer> chunk = customersToCreate.subList(from, Math.min(from + BATCH_CHUNK_SIZE, customersToCreate.size()));
+
+            // Only emails the index cannot rule out are looked up in the database
+            List<String> candidateEmails = chunk.stream()
+                    .map(Customer::getEmail)
+                    .filter(Objects::nonNull)
+                    .filter(emailIndex::mightContain)
+                    .toList();
+            Set<String> existingEmails = candidateEmails.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(customerRepository.findExistingEmails(candidateEmails));
+
+            List<Customer> acceptedCustomers = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                Customer customer = chunk.get(i);
+                String email = customer.getEmail();
+
+                // The unique index allows any number of customers without an email
+                if (email != null && (existingEmails.contains(email) || !seenEmails.add(email))) {
+                    results.add(emailConflict(from + i, email));
+                    continue;
+                }
 
-        String email = customerToUpdate.getEmail();
-        if (customerRepository.existsByEmail(email)
-                & !existingCustomer.getEmail().equals(email)) {
-            throw new EmailAlreadyExistsException("Email " + email + " already exists");
+                acceptedCustomers.add(customer);
+                results.add(BatchItemResult.builder()
+                        .index(from + i)
+                        .status(BatchItemStatus.CREATED)
+                        .customer(customer)
+                        .build());
+            }
+
+            acceptedCustomers.forEach(customer -> emailIndex.add(customer.getEmail()));
+            try {
+                insertCustomers(acceptedCustomers);
+            } catch (DataIntegrityViolationException e) {
+                if (!ConstraintViolations.isViolationOf(e, Customer.EMAIL_UNIQUE_INDEX))
+                    throw e;
+
+                // Another writer took an email after the lookup; the chunk rolled back,
+                // so its customers are inserted one by one to find the ones that conflict
+                for (int i = results.size() - chunk.size(); i < results.size(); i++) {
+                    BatchItemResult result = results.get(i);
+                    if (result.getStatus() == BatchItemStatus.CREATED)
+                        results.set(i, createOne(result.getIndex(), result.getCustomer()));
+                }
+            }
         }
 
-        existingCustomer.setName(customerToUpdate.getName());
-        existingCustomer.setEmail(email);
-        existingCustomer.setAddress(customerToUpdate.getAddress());
+        return results;
+    }
 
-        return customerRepository.save(existingCustomer);
+    // Loaded through the cache's guarded get, so a read racing a committed write is not cached
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CUSTOMERS_CACHE, key = "#id", sync = true)
+    @Transactional(readOnly = true)
+    public CustomerDto getCustomerById(Long id) {
+        return customerRepository.findDtoById(id)
+                .orElseThrow(() -> customerNotFound(id));
     }
 
+    // One IN query for the distinct ids; found customers keep the order they were asked for in
     @Override
-    public Customer partialUpdate(Long id, Customer customerToUpdate) {
-        Customer existingCustomer = getCustomerById(id);
-
-        String email = customerToUpdate.getEmail();
-        if (email != null
-                & customerRepository.existsByEmail(email)
-                & !existingCustomer.getEmail().equals(email)) {
-            throw new EmailAlreadyExistsException("Email " + email + " already exists");
+    @Transactional(readOnly = true)
+    public CustomerLookupResult getCustomersByIds(Collection<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        if (distinctIds.isEmpty())
+            return new CustomerLookupResult(List.of(), List.of());
+
+        Map<Long, CustomerDto> customersById = new HashMap<>();
+        customerRepository.findDtosByIdIn(distinctIds)
+                .forEach(customer -> customersById.put(customer.getId(), customer));
+
+        List<CustomerDto> content = new ArrayList<>(customersById.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            CustomerDto customer = customersById.get(id);
+            if (customer == null)
+                missingIds.add(id);
+            else
+                content.add(customer);
         }
 
-        Optional.ofNullable(customerToUpdate.getName()).ifPresent(existingCustomer::setName);
-        Optional.ofNullable(customerToUpdate.getEmail()).ifPresent(existingCustomer::setEmail);
-        Optional.ofNullable(customerToUpdate.getAddress()).ifPresent(existingCustomer::setAddress);
+        return CustomerLookupResult.builder()
+                .content(content)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerSearchPage searchCustomers(String query, int page, int size) {
+        String trimmedQuery = query == null ? "" : query.strip();
+        if (trimmedQuery.length() < MIN_SEARCH_QUERY_LENGTH)
+            throw new InvalidSearchQueryException("Search query must have at least " + MIN_SEARCH_QUERY_LENGTH + " characters");
+
+        Slice<CustomerDto> customers = customerSearch.search(trimmedQuery, PageRequest.of(page, size));
+
+        return CustomerSearchPage.builder()
+                .content(customers.getContent())
+                .nextPage(customers.hasNext() ? page + 1 : null)
+                .build();
+    }
+
+    // Updates and deletes are single statements keyed by id and, when given, the expected
+    // version; an affected-row count of zero means the customer is missing or stale
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS_CACHE, key = "#id")
+    public CustomerDto fullUpdateCustomer(Long id, Long expectedVersion, Customer customerToUpdate) {
+        int updatedRows = writeWithUniqueEmail(customerToUpdate.getEmail(), () -> customerRepository.updateById(
+                id, expectedVersion, customerToUpdate.getName(), customerToUpdate.getEmail(), customerToUpdate.getAddress()));
+
+        if (updatedRows == 0)
+            throw writeRejected(id, expectedVersion);
+
+        // The new version is only known without a read when the client sent the one it replaced;
+        // otherwise it is read back, since the ETag and change events need the version written
+        CustomerDto updatedCustomer = expectedVersion == null
+                ? customerRepository.findDtoById(id).orElseThrow(() -> customerNotFound(id))
+                : CustomerDto.builder()
+                        .id(id)
+                        .name(customerToUpdate.getName())
+                        .email(customerToUpdate.getEmail())
+                        .address(customerToUpdate.getAddress())
+                        .version(expectedVersion + 1)
+                        .build();
+
+        eventPublisher.publishEvent(new CustomerChangedEvent(CustomerChangeType.UPDATED, id, updatedCustomer));
+        return updatedCustomer;
+    }
 
-        return customerRepository.save(existingCustomer);
+    // The response carries the whole customer, so the untouched fields are read back by projection
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS_CACHE, key = "#id")
+    public CustomerDto partialUpdate(Long id, Long expectedVersion, Customer customerToUpdate) {
+        int updatedRows = writeWithUniqueEmail(customerToUpdate.getEmail(), () -> customerRepository.updateNonNullFieldsById(
+                id, expectedVersion, customerToUpdate.getName(), customerToUpdate.getEmail(), customerToUpdate.getAddress()));
+
+        if (updatedRows == 0)
+            throw writeRejected(id, expectedVersion);
+
+        CustomerDto updatedCustomer = customerRepository.findDtoById(id)
+                .orElseThrow(() -> customerNotFound(id));
+
+        eventPublisher.publishEvent(new CustomerChangedEvent(CustomerChangeType.UPDATED, id, updatedCustomer));
+        return updatedCustomer;
     }
 
+    // Each chunk costs one IN query for the rows, at most one email lookup and the JDBC update
+    // batches flushed by dirty checking, all in one transaction per chunk. Rows are versioned on
+    // flush like any other entity write, and the whole customer cache is dropped since a sync run
+    // touches far more ids than it holds
     @Override
-    public void deleteCustomer(Long id) {
-        Customer existingCustomer = getCustomerById(id);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS_CACHE, allEntries = true)
+    public List<BatchItemResult> partialUpdateCustomers(List<Customer> customersToUpdate) {
+        List<BatchItemResult> results = new ArrayList<>(customersToUpdate.size());
+        Set<String> claimedEmails = new HashSet<>();
+
+        for (int from = 0; from < customersToUpdate.size(); from += BATCH_CHUNK_SIZE) {
+            int chunkFrom = from;
+            List<Customer> chunk = customersToUpdate.subList(from, Math.min(from + BATCH_CHUNK_SIZE, customersToUpdate.size()));
+            Set<String> chunkEmails = new HashSet<>();
+
+            List<BatchItemResult> chunkResults;
+            try {
+                chunkResults = transactionTemplate.execute(status -> updateChunk(chunkFrom, chunk, claimedEmails, chunkEmails));
+                claimedEmails.addAll(chunkEmails);
+            } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (e instanceof DataIntegrityViolationException && !ConstraintViolations.isViolationOf(e, Customer.EMAIL_UNIQUE_INDEX))
+                    throw e;
 
-        customerRepository.delete(existingCustomer);
+                // A row changed or an email was taken after the chunk was read; the chunk rolled
+                // back, so its items are applied one by one to find the ones that clash
+                chunkResults = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++)
+                    chunkResults.add(updateOne(from + i, chunk.get(i), claimedEmails));
+            }
+
+            results.addAll(chunkResults);
+        }
+
+        return results;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS_CACHE, key = "#id")
+    public void deleteCustomer(Long id, Long expectedVersion) {
+        if (customerRepository.deleteCustomerById(id, expectedVersion) == 0)
+            throw writeRejected(id, expectedVersion);
+
+        eventPublisher.publishEvent(new CustomerChangedEvent(CustomerChangeType.DELETED, id, null));
+    }
+
+    private BatchItemResult createOne(int index, Customer customer) {
+        try {
+            insertCustomers(List.of(customer));
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isViolationOf(e, Customer.EMAIL_UNIQUE_INDEX))
+                throw e;
+
+            return emailConflict(index, customer.getEmail());
+        }
+
+        return BatchItemResult.builder()
+                .index(index)
+                .status(BatchItemStatus.CREATED)
+                .customer(customer)
+                .build();
+    }
+
+    // Flushed through the repository so constraint violations surface translated, and cleared
+    // because an open-in-view persistence context outlives the transaction
+    private void insertCustomers(List<Customer> customers) {
+        // A rolled back attempt leaves its sequence id and seeded version behind, and
+        // either would turn the retried insert into a merge
+        customers.forEach(customer -> {
+            customer.setId(null);
+            customer.setVersion(null);
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            customerRepository.saveAll(customers);
+            customerRepository.flush();
+            entityManager.clear();
+
+            customers.forEach(customer -> publishChange(CustomerChangeType.CREATED, customer));
+        });
+    }
+
+    private static BatchItemResult emailConflict(int index, String email) {
+        return BatchItemResult.builder()
+                .index(index)
+                .status(BatchItemStatus.CONFLICT)
+                .message("Email " + email + " already exists")
+                .build();
+    }
+
+    private List<BatchItemResult> updateChunk(int from, List<Customer> chunk, Set<String> claimedEmails, Set<String> chunkEmails) {
+        Map<Long, Customer> customersById = new HashMap<>();
+        customerRepository.findAllById(chunk.stream().map(Customer::getId).filter(Objects::nonNull).toList())
+                .forEach(customer -> customersById.put(customer.getId(), customer));
+
+        // Only emails that change and that the index cannot rule out are looked up in the database
+        List<String> candidateEmails = chunk.stream()
+                .filter(changes -> isEmailChange(customersById.get(changes.getId()), changes))
+                .map(Customer::getEmail)
+                .filter(emailIndex::mightContain)
+                .toList();
+        Set<String> existingEmails = candidateEmails.isEmpty()
+                ? Set.of()
+                : new HashSet<>(customerRepository.findExistingEmails(candidateEmails));
+
+        List<BatchItemResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Customer changes = chunk.get(i);
+            results.add(updateItem(from + i, customersById.get(changes.getId()), changes,
+                    email -> !existingEmails.contains(email) && !claimedEmails.contains(email) && chunkEmails.add(email)));
+        }
+
+        customerRepository.flush();
+        entityManager.clear();
+
+        results.stream()
+                .filter(result -> result.getStatus() == BatchItemStatus.UPDATED)
+                .forEach(result -> publishChange(CustomerChangeType.UPDATED, result.getCustomer()));
+        return results;
+    }
+
+    // The row is read again in its own transaction, so only a write that lands in between is
+    // still reported as a version mismatch
+    private BatchItemResult updateOne(int index, Customer changes, Set<String> claimedEmails) {
+        BatchItemResult result;
+        try {
+            result = transactionTemplate.execute(status -> {
+                Customer customer = changes.getId() == null ? null : customerRepository.findById(changes.getId()).orElse(null);
+                BatchItemResult itemResult = updateItem(index, customer, changes, email -> !claimedEmails.contains(email));
+
+                customerRepository.flush();
+                entityManager.clear();
+
+                if (itemResult.getStatus() == BatchItemStatus.UPDATED)
+                    publishChange(CustomerChangeType.UPDATED, itemResult.getCustomer());
+                return itemResult;
+            });
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return BatchItemResult.builder()
+                    .index(index)
+                    .status(BatchItemStatus.VERSION_MISMATCH)
+                    .message("Customer " + changes.getId() + " was changed by another request, please retry")
+                    .build();
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isViolationOf(e, Customer.EMAIL_UNIQUE_INDEX))
+                throw e;
+
+            return emailConflict(index, changes.getEmail());
+        }
+
+        if (result.getStatus() == BatchItemStatus.UPDATED && changes.getEmail() != null)
+            claimedEmails.add(changes.getEmail());
+        return result;
+    }
+
+    // claimEmail is only asked once the item is otherwise valid, so a rejected item never claims one
+    private BatchItemResult updateItem(int index, Customer customer, Customer changes, Predicate<String> claimEmail) {
+        BatchItemResult.BatchItemResultBuilder result = BatchItemResult.builder().index(index);
+
+        if (customer == null)
+            return result
+                    .status(BatchItemStatus.NOT_FOUND)
+                    .message("Customer not found with id " + changes.getId())
+                    .build();
+
+        if (changes.getVersion() != null && !changes.getVersion().equals(customer.getVersion()))
+            return result
+                    .status(BatchItemStatus.VERSION_MISMATCH)
+                    .message("Customer " + customer.getId() + " is no longer at version " + changes.getVersion())
+                    .build();
+
+        if (isEmailChange(customer, changes) && !claimEmail.test(changes.getEmail()))
+            return emailConflict(index, changes.getEmail());
+
+        emailIndex.add(changes.getEmail());
+        applyNonNullFields(customer, changes);
+        return result
+                .status(BatchItemStatus.UPDATED)
+                .customer(customer)
+                .build();
+    }
+
+    // Delivered to the change feed only once the transaction commits
+    private void publishChange(CustomerChangeType type, Customer customer) {
+        eventPublisher.publishEvent(new CustomerChangedEvent(type, customer.getId(), customerMapper.toCustomerDto(customer)));
+    }
+
+    // Only a conditional write needs the extra lookup to tell a stale version from a missing customer
+    private RuntimeException writeRejected(Long id, Long expectedVersion) {
+        if (expectedVersion == null || !customerRepository.existsById(id))
+            return customerNotFound(id);
+
+        return new CustomerVersionMismatchException("Customer " + id + " is no longer at version " + expectedVersion);
+    }
+
+    private static boolean isEmailChange(Customer customer, Customer changes) {
+        return customer != null && changes.getEmail() != null && !changes.getEmail().equals(customer.getEmail());
+    }
+
+    private static void applyNonNullFields(Customer customer, Customer changes) {
+        if (changes.getName() != null)
+            customer.setName(changes.getName());
+        if (changes.getEmail() != null)
+            customer.setEmail(changes.getEmail());
+        if (changes.getAddress() != null)
+            customer.setAddress(changes.getAddress());
+    }
+
+    private static CustomerNotFoundException customerNotFound(Long id) {
+        return new CustomerNotFoundException("Customer not found with id " + id);
+    }
+
+    // The unique index on email is the single source of truth, so writes skip the
+    // existsByEmail round trip and concurrent writers cannot both pass a pre-check
+    private <T> T writeWithUniqueEmail(String email, Supplier<T> write) {
+        // Added before the write, so a concurrent batch check can never miss it
+        emailIndex.add(email);
+
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolationOf(e, Customer.EMAIL_UNIQUE_INDEX))
+                throw new EmailAlreadyExistsException("Email " + email + " already exists");
+
+            throw e;
+        }
     }
 }
@@ -0,0 +1,175 @@
+package com.dev.demo.customer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Membership index of customer emails, stored as 64-bit fingerprints in an open-addressing
+ * {@code long[]} table, so it has no per-entry objects.
+ * <p>
+ * {@link #mightContain} never gives a false negative for an email that went through this
+ * instance. A {@code true} is only a hint: it can come from a fingerprint collision (about
+ * n / 2^64 per lookup) or from an email that was later changed or deleted, which this
+ * index never removes. Callers fall back to the database on a hit. The index is a
+ * pre-filter, not a constraint. The unique index on email stays the source of truth.
+ * Rows written by other instances or outside the application are the one way to get a
+ * false negative, and the unique index still rejects those.
+ * <p>
+ * Memory: the table doubles once it is half full, so it uses 16 to 32 bytes per email.
+ * That is 16 to 32 MB per million emails, plus a transient second table while it grows.
+ * <p>
+ * Until {@link #markReady} is called, for example while warming up from the table, every
+ * email is reported as possibly present. A {@link #disabled} index is never ready and
+ * ignores {@link #add}, so it holds no emails at all.
+ */
+public class EmailFingerprintIndex {
+
+    private static final int MIN_CAPACITY = 1 << 10;
+
+    private static final long EMPTY = 0L;
+
+    private final StampedLock lock = new StampedLock();
+
+    private long[] table;
+
+    private int size;
+
+    private final boolean enabled;
+
+    private volatile boolean ready;
+
+    public EmailFingerprintIndex() {
+        this(MIN_CAPACITY);
+    }
+
+    public EmailFingerprintIndex(int expectedSize) {
+        this(new long[tableCapacityFor(expectedSize)], true);
+    }
+
+    private EmailFingerprintIndex(long[] table, boolean enabled) {
+        this.table = table;
+        this.enabled = enabled;
+    }
+
+    public static EmailFingerprintIndex disabled() {
+        return new EmailFingerprintIndex(new long[0], false);
+    }
+
+    public boolean mightContain(String email) {
+        if (!ready || email == null)
+            return true;
+
+        long fingerprint = fingerprint(email);
+
+        long stamp = lock.tryOptimisticRead();
+        boolean found = contains(table, fingerprint);
+        if (lock.validate(stamp))
+            return found;
+
+        stamp = lock.readLock();
+        try {
+            return contains(table, fingerprint);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void add(String email) {
+        if (!enabled || email == null)
+            return;
+
+        long fingerprint = fingerprint(email);
+
+        long stamp = lock.writeLock();
+        try {
+            if (insert(table, fingerprint)) {
+                size++;
+                if (size * 2L > table.length)
+                    table = rehash(table, table.length * 2);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void markReady() {
+        ready = enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long memoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) table.length * Long.BYTES;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // FNV-1a over the UTF-8 bytes, finished with the SplitMix64 mixer; 0 marks an empty slot
+    static long fingerprint(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        hash = hash ^ (hash >>> 31);
+
+        return hash == EMPTY ? 1L : hash;
+    }
+
+    private static boolean contains(long[] table, long fingerprint) {
+        int mask = table.length - 1;
+        for (int slot = (int) fingerprint & mask; ; slot = (slot + 1) & mask) {
+            long current = table[slot];
+            if (current == fingerprint)
+                return true;
+            if (current == EMPTY)
+                return false;
+        }
+    }
+
+    private static boolean insert(long[] table, long fingerprint) {
+        int mask = table.length - 1;
+        for (int slot = (int) fingerprint & mask; ; slot = (slot + 1) & mask) {
+            long current = table[slot];
+            if (current == fingerprint)
+                return false;
+            if (current == EMPTY) {
+                table[slot] = fingerprint;
+                return true;
+            }
+        }
+    }
+
+    private static long[] rehash(long[] table, int capacity) {
+        long[] resized = new long[capacity];
+        for (long fingerprint : table) {
+            if (fingerprint != EMPTY)
+                insert(resized, fingerprint);
+        }
+        return resized;
+    }
+
+    private static int tableCapacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L)
+            capacity <<= 1;
+        return capacity;
+    }
+}
@@ -0,0 +1,10 @@
+package com.dev.demo.customer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.customer.email-index")
+public record EmailIndexProperties(
+        @DefaultValue("false") boolean enabled
+) {
+}
@@ -0,0 +1,39 @@
+package com.dev.demo.customer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends each message as one NDJSON line; the batch is forced to disk before the relay
+// deletes it from the outbox
+public class FileCustomerOutboxSink implements CustomerOutboxSink {
+
+    private final Path file;
+
+    private final ObjectMapper objectMapper;
+
+    public FileCustomerOutboxSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<CustomerOutboxMessage> messages) {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE, StandardOpenOption.SYNC)) {
+            for (CustomerOutboxMessage message : messages) {
+                writer.write(objectMapper.writeValueAsString(message));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.dev.demo.customer;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Locale;
+
+// Portable fallback for databases without trigram indexes, e.g. H2 in tests; it scans the table
+public class JpqlCustomerSearch implements CustomerSearch {
+
+    private final CustomerRepository customerRepository;
+
+    public JpqlCustomerSearch(CustomerRepository customerRepository) {
+        this.customerRepository = customerRepository;
+    }
+
+    @Override
+    public Slice<CustomerDto> search(String query, Pageable pageable) {
+        String escaped = CustomerSearch.escapeLike(query.toLowerCase(Locale.ROOT));
+
+        return customerRepository.searchDtos("%" + escaped + "%", escaped + "%", pageable);
+    }
+}
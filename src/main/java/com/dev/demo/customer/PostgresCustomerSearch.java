@@ -0,0 +1,83 @@
+package com.dev.demo.customer;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+// The trigram GIN index covers the same expression the query filters on, so ILIKE '%q%'
+// is answered from the index and only the matching rows are ranked by word similarity
+public class PostgresCustomerSearch implements CustomerSearch {
+
+    public static final String SEARCH_INDEX = "idx_customers_search_trgm";
+
+    private static final String DOCUMENT =
+            "(coalesce(name, '') || ' ' || coalesce(email, '') || ' ' || coalesce(address, ''))";
+
+    private static final String SEARCH_SQL = """
+            select id, name, email, address, version
+            from customers
+            where %1$s ilike :pattern escape '%2$s'
+            order by word_similarity(:query, %1$s) desc, id
+            limit :limit offset :offset
+            """.formatted(DOCUMENT, LIKE_ESCAPE);
+
+    private static final RowMapper<CustomerDto> CUSTOMER_DTO_ROW_MAPPER = (rs, rowNum) -> CustomerDto.builder()
+            .id(rs.getLong("id"))
+            .name(rs.getString("name"))
+            .email(rs.getString("email"))
+            .address(rs.getString("address"))
+            .version(rs.getLong("version"))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PostgresCustomerSearch(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // The ranking functions come from pg_trgm, so search cannot run without it
+    public static void createExtension(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("create extension if not exists pg_trgm");
+    }
+
+    // Concurrent build so creating the index on a large table does not block writes. A failed or
+    // cancelled concurrent build leaves an INVALID index behind that "if not exists" would keep
+    // forever, so an invalid index is dropped and built again
+    public static void createIndex(JdbcTemplate jdbcTemplate) {
+        List<Boolean> valid = jdbcTemplate.queryForList("""
+                select i.indisvalid
+                from pg_index i
+                join pg_class c on c.oid = i.indexrelid
+                where c.relname = ? and pg_table_is_visible(c.oid)
+                """, Boolean.class, SEARCH_INDEX);
+
+        if (!valid.isEmpty() && valid.get(0))
+            return;
+        if (!valid.isEmpty())
+            jdbcTemplate.execute("drop index concurrently if exists " + SEARCH_INDEX);
+
+        jdbcTemplate.execute("create index concurrently if not exists " + SEARCH_INDEX
+                + " on customers using gin (" + DOCUMENT + " gin_trgm_ops)");
+    }
+
+    @Override
+    public Slice<CustomerDto> search(String query, Pageable pageable) {
+        // One extra row tells whether there is a next page without a count query
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("pattern", "%" + CustomerSearch.escapeLike(query) + "%")
+                .addValue("query", query)
+                .addValue("limit", pageable.getPageSize() + 1)
+                .addValue("offset", pageable.getOffset());
+
+        List<CustomerDto> customers = jdbcTemplate.query(SEARCH_SQL, parameters, CUSTOMER_DTO_ROW_MAPPER);
+        boolean hasNext = customers.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? customers.subList(0, pageable.getPageSize()) : customers, pageable, hasNext);
+    }
+}
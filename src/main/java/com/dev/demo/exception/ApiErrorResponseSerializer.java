@@ -0,0 +1,33 @@
+package com.dev.demo.exception;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// Same output as the bean serializer for ApiErrorResponse, with pre-encoded field names
+public class ApiErrorResponseSerializer extends StdSerializer<ApiErrorResponse> {
+
+    private static final SerializedString STATUS = new SerializedString("status");
+
+    private static final SerializedString MESSAGE = new SerializedString("message");
+
+    public ApiErrorResponseSerializer() {
+        super(ApiErrorResponse.class);
+    }
+
+    @Override
+    public void serialize(ApiErrorResponse errorResponse, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(errorResponse);
+
+        generator.writeFieldName(STATUS);
+        generator.writeNumber(errorResponse.getStatus());
+
+        generator.writeFieldName(MESSAGE);
+        generator.writeString(errorResponse.getMessage());
+
+        generator.writeEndObject();
+    }
+}
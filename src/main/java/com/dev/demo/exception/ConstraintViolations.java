@@ -0,0 +1,20 @@
+package com.dev.demo.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+    public static boolean isViolationOf(Throwable throwable, String constraintName) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase().contains(constraintName.toLowerCase())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
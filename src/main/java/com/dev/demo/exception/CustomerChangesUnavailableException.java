@@ -0,0 +1,8 @@
+package com.dev.demo.exception;
+
+public class CustomerChangesUnavailableException extends RuntimeException {
+
+    public CustomerChangesUnavailableException(String message) {
+        super(message);
+    }
+}
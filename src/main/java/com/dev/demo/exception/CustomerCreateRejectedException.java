@@ -0,0 +1,8 @@
+package com.dev.demo.exception;
+
+public class CustomerCreateRejectedException extends RuntimeException {
+
+    public CustomerCreateRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.dev.demo.exception;
+
+public class CustomerCreateUnavailableException extends RuntimeException {
+
+    public CustomerCreateUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.dev.demo.exception;
+
+public class CustomerVersionMismatchException extends RuntimeException {
+
+    public CustomerVersionMismatchException(String message) {
+        super(message);
+    }
+}
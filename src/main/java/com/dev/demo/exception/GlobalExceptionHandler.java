@@ -1,8 +1,13 @@
 package com.dev.demo.exception;
 
+import com.dev.demo.customer.Customer;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -10,35 +15,95 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    public static final String ERRORS_METRIC = "customer.api.errors";
+
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiErrorResponse> handleException(Exception e) {
         log.error("Exception {}", e.toString());
 
-        ApiErrorResponse errorResponse = ApiErrorResponse.builder()
-                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
-                .message("Unexpected Error")
-                .build();
+        return errorResponse(e, HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected Error");
+    }
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    @ExceptionHandler(HttpMediaTypeNotAcceptableException.class)
+    public ResponseEntity<ApiErrorResponse> handleHttpMediaTypeNotAcceptableException(HttpMediaTypeNotAcceptableException e) {
+        return errorResponse(e, HttpStatus.NOT_ACCEPTABLE, e.getMessage());
     }
 
     @ExceptionHandler(CustomerNotFoundException.class)
     public ResponseEntity<ApiErrorResponse> handleCustomerNotFoundException(CustomerNotFoundException e) {
-        ApiErrorResponse errorResponse = ApiErrorResponse.builder()
-                .status(HttpStatus.NOT_FOUND.value())
-                .message(e.getMessage())
-                .build();
-
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        return errorResponse(e, HttpStatus.NOT_FOUND, e.getMessage());
     }
 
     @ExceptionHandler(EmailAlreadyExistsException.class)
     public ResponseEntity<ApiErrorResponse> handleEmailAlreadyExistsException(EmailAlreadyExistsException e) {
+        return errorResponse(e, HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidSearchQueryException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidSearchQueryException(InvalidSearchQueryException e) {
+        return errorResponse(e, HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCustomerLookupException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidCustomerLookupException(InvalidCustomerLookupException e) {
+        return errorResponse(e, HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(CustomerVersionMismatchException.class)
+    public ResponseEntity<ApiErrorResponse> handleCustomerVersionMismatchException(CustomerVersionMismatchException e) {
+        return errorResponse(e, HttpStatus.PRECONDITION_FAILED, e.getMessage());
+    }
+
+    @ExceptionHandler(CustomerChangesUnavailableException.class)
+    public ResponseEntity<ApiErrorResponse> handleCustomerChangesUnavailableException(CustomerChangesUnavailableException e) {
+        return errorResponse(e, HttpStatus.GONE, e.getMessage());
+    }
+
+    @ExceptionHandler(CustomerCreateRejectedException.class)
+    public ResponseEntity<ApiErrorResponse> handleCustomerCreateRejectedException(CustomerCreateRejectedException e) {
+        ResponseEntity<ApiErrorResponse> response = errorResponse(e, HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response.getBody());
+    }
+
+    @ExceptionHandler(CustomerCreateUnavailableException.class)
+    public ResponseEntity<ApiErrorResponse> handleCustomerCreateUnavailableException(CustomerCreateUnavailableException e) {
+        ResponseEntity<ApiErrorResponse> response = errorResponse(e, HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response.getBody());
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException e) {
+        if (ConstraintViolations.isViolationOf(e, Customer.EMAIL_UNIQUE_INDEX))
+            return errorResponse(e, HttpStatus.BAD_REQUEST, "Email already exists");
+
+        log.error("Exception {}", e.toString());
+
+        return errorResponse(e, HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected Error");
+    }
+
+    private ResponseEntity<ApiErrorResponse> errorResponse(Exception e, HttpStatus status, String message) {
+        meterRegistry.counter(ERRORS_METRIC,
+                "exception", e.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())
+        ).increment();
+
         ApiErrorResponse errorResponse = ApiErrorResponse.builder()
-                .status(HttpStatus.BAD_REQUEST.value())
-                .message(e.getMessage())
+                .status(status.value())
+                .message(message)
                 .build();
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(errorResponse, status);
     }
 }
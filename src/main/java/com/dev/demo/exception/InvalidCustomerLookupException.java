@@ -0,0 +1,8 @@
+package com.dev.demo.exception;
+
+public class InvalidCustomerLookupException extends RuntimeException {
+
+    public InvalidCustomerLookupException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,120 @@
+package com.dev.demo.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// With virtual threads every request gets its own thread, so this bounds how many
+// of them may queue up behind the connection pool instead of the servlet thread pool
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+
+    private final long acquireTimeoutNanos;
+
+    private final List<String> longLivedPaths;
+
+    private final ObjectMapper objectMapper;
+
+    public AdmissionControlFilter(AdmissionControlProperties properties, ObjectMapper objectMapper) {
+        this.permits = new Semaphore(properties.maxConcurrentRequests());
+        this.acquireTimeoutNanos = properties.acquireTimeout().toNanos();
+        this.longLivedPaths = List.copyOf(properties.longLivedPaths());
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!tryAcquire()) {
+            reject(response);
+            return;
+        }
+
+        Runnable release = releaseOnce();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // A deferred or streamed response keeps its permit until the async request ends,
+            // except long polls and event streams, which only wait once they go async and
+            // would otherwise hold a permit for up to the async timeout
+            if (request.isAsyncStarted() && !isLongLived(request))
+                request.getAsyncContext().addListener(new PermitReleasingListener(release));
+            else
+                release.run();
+        }
+    }
+
+    // The permit taken on the first dispatch covers the async ones as well
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private boolean isLongLived(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return longLivedPaths.stream().anyMatch(path::startsWith);
+    }
+
+    private boolean tryAcquire() {
+        try {
+            return permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Runnable releaseOnce() {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true))
+                permits.release();
+        };
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        RejectedRequests.reject(response, objectMapper, HttpStatus.SERVICE_UNAVAILABLE, 1,
+                "Server is busy, please retry later");
+    }
+
+    private record PermitReleasingListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        // Starting async again drops the registered listeners
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
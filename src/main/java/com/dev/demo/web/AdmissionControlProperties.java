@@ -0,0 +1,16 @@
+package com.dev.demo.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.admission")
+public record AdmissionControlProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("200") int maxConcurrentRequests,
+        @DefaultValue("100ms") Duration acquireTimeout,
+        @DefaultValue("/api/v1/customers/changes") List<String> longLivedPaths
+) {
+}
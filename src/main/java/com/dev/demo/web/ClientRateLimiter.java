@@ -0,0 +1,49 @@
+package com.dev.demo.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+// One pair of buckets per client. A bucket left alone long enough to refill completely is
+// no different from a new one, so clients are evicted after that long without a request and
+// the map stays bounded by the clients active in the last few seconds
+public class ClientRateLimiter {
+
+    private final RateLimitProperties properties;
+
+    private final Cache<String, ClientBuckets> buckets;
+
+    public ClientRateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maximumClients())
+                .expireAfterAccess(Duration.ofSeconds(Math.max(
+                        secondsToRefill(properties.bulkCapacity(), properties.bulkRefillPerSecond()),
+                        secondsToRefill(properties.singleCapacity(), properties.singleRefillPerSecond()))))
+                .build();
+    }
+
+    public boolean tryAcquire(String client, RequestCost cost) {
+        return bucket(client, cost).tryAcquire();
+    }
+
+    public long nanosUntilNextToken(String client, RequestCost cost) {
+        return bucket(client, cost).nanosUntilNextToken();
+    }
+
+    private TokenBucket bucket(String client, RequestCost cost) {
+        ClientBuckets clientBuckets = buckets.get(client, key -> new ClientBuckets(
+                new TokenBucket(properties.bulkCapacity(), properties.bulkRefillPerSecond()),
+                new TokenBucket(properties.singleCapacity(), properties.singleRefillPerSecond())));
+
+        return cost == RequestCost.BULK ? clientBuckets.bulk() : clientBuckets.single();
+    }
+
+    private static long secondsToRefill(int capacity, int refillPerSecond) {
+        return Math.max(1, (capacity + refillPerSecond - 1) / refillPerSecond);
+    }
+
+    private record ClientBuckets(TokenBucket bulk, TokenBucket single) {
+    }
+}
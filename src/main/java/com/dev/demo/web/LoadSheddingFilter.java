@@ -0,0 +1,122 @@
+package com.dev.demo.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Sheds the configured request costs, bulk reads by default, while the connection pool is
+// the bottleneck. Once per sample interval the first request through works out the mean
+// connection acquire time since the previous sample from Hikari's own meters; any acquire
+// timeout in the interval counts as overloaded too, since Hikari only times the successful
+// ones. Every other request just reads the last verdict
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    static final String ACQUIRE_METRIC = "hikaricp.connections.acquire";
+
+    static final String TIMEOUT_METRIC = "hikaricp.connections.timeout";
+
+    private final MeterRegistry meterRegistry;
+
+    private final String poolName;
+
+    private final double maxPoolWaitNanos;
+
+    private final long sampleIntervalNanos;
+
+    private final Set<RequestCost> shedCosts;
+
+    private final ObjectMapper objectMapper;
+
+    private final LongSupplier nanoClock;
+
+    private final Counter rejections;
+
+    private final AtomicLong lastSampleNanos;
+
+    private long lastAcquireCount;
+
+    private double lastAcquireNanos;
+
+    private double lastTimeoutCount;
+
+    private volatile boolean overloaded;
+
+    public LoadSheddingFilter(LoadSheddingProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, meterRegistry, System::nanoTime);
+    }
+
+    LoadSheddingFilter(LoadSheddingProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                       LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.poolName = properties.poolName();
+        this.maxPoolWaitNanos = properties.maxPoolWait().toNanos();
+        this.sampleIntervalNanos = properties.sampleInterval().toNanos();
+        this.shedCosts = properties.shedCosts().isEmpty()
+                ? EnumSet.noneOf(RequestCost.class)
+                : EnumSet.copyOf(properties.shedCosts());
+        this.objectMapper = objectMapper;
+        this.nanoClock = nanoClock;
+        this.lastSampleNanos = new AtomicLong(nanoClock.getAsLong());
+        this.rejections = Counter.builder(RejectedRequests.REJECTIONS_METRIC)
+                .description("API requests rejected before reaching a controller")
+                .tag("reason", "load-shedding")
+                .tag("cost", "any")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (shedCosts.contains(RequestCost.of(request)) && overloaded()) {
+            rejections.increment();
+            RejectedRequests.reject(response, objectMapper, HttpStatus.SERVICE_UNAVAILABLE,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(sampleIntervalNanos)),
+                    "Server is overloaded, please retry later");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    boolean overloaded() {
+        long now = nanoClock.getAsLong();
+        long lastSample = lastSampleNanos.get();
+        if (now - lastSample >= sampleIntervalNanos && lastSampleNanos.compareAndSet(lastSample, now))
+            sample();
+
+        return overloaded;
+    }
+
+    private synchronized void sample() {
+        Timer acquires = meterRegistry.find(ACQUIRE_METRIC).tag("pool", poolName).timer();
+        if (acquires == null)
+            return;
+
+        long acquireCount = acquires.count();
+        double acquireNanos = acquires.totalTime(TimeUnit.NANOSECONDS);
+        Counter timeouts = meterRegistry.find(TIMEOUT_METRIC).tag("pool", poolName).counter();
+        double timeoutCount = timeouts == null ? 0 : timeouts.count();
+
+        long acquired = acquireCount - lastAcquireCount;
+        overloaded = timeoutCount > lastTimeoutCount
+                || acquired > 0 && (acquireNanos - lastAcquireNanos) / acquired > maxPoolWaitNanos;
+
+        lastAcquireCount = acquireCount;
+        lastAcquireNanos = acquireNanos;
+        lastTimeoutCount = timeoutCount;
+    }
+}
@@ -0,0 +1,17 @@
+package com.dev.demo.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Set;
+
+@ConfigurationProperties(prefix = "app.load-shedding")
+public record LoadSheddingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("primary") String poolName,
+        @DefaultValue("50ms") Duration maxPoolWait,
+        @DefaultValue("1s") Duration sampleInterval,
+        @DefaultValue("BULK") Set<RequestCost> shedCosts
+) {
+}
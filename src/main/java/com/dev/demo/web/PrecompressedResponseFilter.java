@@ -0,0 +1,190 @@
+package com.dev.demo.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+// List responses carry an ETag derived from the ids and versions they contain, so the
+// gzip bytes of a body can be cached under its URL, content type and ETag and reused
+// until a customer on it changes. The body is still serialized on every request; only
+// the compression is skipped. Tomcat's own compression leaves responses alone once
+// they have a Content-Encoding.
+//
+// A weak ETag already allows another encoding of the same content, so it is kept. A
+// strong one promises these exact bytes, so the gzip body gets its own tag, "<tag>-gzip",
+// and an If-None-Match naming that tag is matched against the tag the controller sets
+public class PrecompressedResponseFilter extends OncePerRequestFilter {
+
+    public static final String CACHE_NAME = "precompressed-responses";
+
+    private static final String GZIP = "gzip";
+
+    private static final String GZIP_ETAG_SUFFIX = "-gzip\"";
+
+    private final long minResponseSize;
+
+    private final int level;
+
+    private final Cache<String, byte[]> compressedResponses;
+
+    public PrecompressedResponseFilter(PrecompressedResponseProperties properties, MeterRegistry meterRegistry) {
+        this.minResponseSize = properties.minResponseSize().toBytes();
+        this.level = properties.level();
+        this.compressedResponses = Caffeine.newBuilder()
+                .maximumWeight(properties.maximumCacheSize().toBytes())
+                .weigher((String key, byte[] compressed) -> key.length() + compressed.length)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, compressedResponses, CACHE_NAME);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (!acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        List<String> ifNoneMatch = Collections.list(request.getHeaders(HttpHeaders.IF_NONE_MATCH));
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(new IdentityETagRequest(request, ifNoneMatch), wrapper);
+
+        String eTag = wrapper.getHeader(HttpHeaders.ETAG);
+        if (wrapper.getStatus() == HttpStatus.NOT_MODIFIED.value() && eTag != null && !isWeak(eTag)
+                && ifNoneMatch.stream().anyMatch(header -> header.contains(gzipETag(eTag)))) {
+            // The client validated its gzip copy, so it gets that copy's tag back
+            wrapper.setHeader(HttpHeaders.ETAG, gzipETag(eTag));
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        if (wrapper.getStatus() != HttpStatus.OK.value()
+                || eTag == null
+                || wrapper.getHeader(HttpHeaders.CONTENT_ENCODING) != null
+                || wrapper.getContentSize() < minResponseSize) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        String key = String.join(" ", request.getRequestURI(), Objects.toString(request.getQueryString(), ""),
+                wrapper.getContentType(), eTag);
+        byte[] body = wrapper.getContentAsByteArray();
+        byte[] compressed = compressedResponses.get(key, ignored -> gzip(body));
+
+        wrapper.resetBuffer();
+        if (!isWeak(eTag))
+            response.setHeader(HttpHeaders.ETAG, gzipETag(eTag));
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        response.setContentLength(compressed.length);
+        response.getOutputStream().write(compressed);
+    }
+
+    long compressions() {
+        return compressedResponses.stats().missCount();
+    }
+
+    // gzip is accepted when listed, or covered by *, without q=0
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null)
+            return false;
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].strip();
+            if (!name.equalsIgnoreCase(GZIP) && !name.equals("*"))
+                continue;
+
+            boolean rejected = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].strip().replace(" ", "");
+                if (parameter.matches("q=0(\\.0{0,3})?"))
+                    rejected = true;
+            }
+            return !rejected;
+        }
+
+        return false;
+    }
+
+    static String gzipETag(String eTag) {
+        return eTag.substring(0, eTag.length() - 1) + GZIP_ETAG_SUFFIX;
+    }
+
+    private static boolean isWeak(String eTag) {
+        return eTag.startsWith("W/");
+    }
+
+    private byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream output = new LevelGzipOutputStream(compressed, level)) {
+            output.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    // Hands the chain If-None-Match with gzip tags turned back into the tags they came from
+    private static final class IdentityETagRequest extends HttpServletRequestWrapper {
+
+        private final List<String> ifNoneMatch;
+
+        IdentityETagRequest(HttpServletRequest request, List<String> ifNoneMatch) {
+            super(request);
+            this.ifNoneMatch = ifNoneMatch.stream()
+                    .map(header -> header.replace(GZIP_ETAG_SUFFIX, "\""))
+                    .toList();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (!HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name))
+                return super.getHeader(name);
+            return ifNoneMatch.isEmpty() ? null : ifNoneMatch.get(0);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (!HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name))
+                return super.getHeaders(name);
+            return Collections.enumeration(ifNoneMatch);
+        }
+    }
+
+    private static final class LevelGzipOutputStream extends GZIPOutputStream {
+
+        LevelGzipOutputStream(ByteArrayOutputStream output, int level) throws IOException {
+            super(output);
+            def.setLevel(level);
+        }
+    }
+}
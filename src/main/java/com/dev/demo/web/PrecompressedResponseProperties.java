@@ -0,0 +1,14 @@
+package com.dev.demo.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "app.compression.precompressed")
+public record PrecompressedResponseProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("2KB") DataSize minResponseSize,
+        @DefaultValue("64MB") DataSize maximumCacheSize,
+        @DefaultValue("1") int level
+) {
+}
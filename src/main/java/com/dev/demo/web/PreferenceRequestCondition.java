@@ -0,0 +1,65 @@
+package com.dev.demo.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.mvc.condition.RequestCondition;
+
+import java.util.Collections;
+
+// Matches on the preference names of RFC 7240: one or more Prefer headers, each a comma
+// separated list of "name[=value][; parameter]" entries, with names compared ignoring case
+public final class PreferenceRequestCondition implements RequestCondition<PreferenceRequestCondition> {
+
+    public static final String PREFER = "Prefer";
+
+    private final String preference;
+
+    public PreferenceRequestCondition(String preference) {
+        this.preference = preference;
+    }
+
+    public static boolean isPreferred(HttpServletRequest request, String preference) {
+        for (String header : Collections.list(request.getHeaders(PREFER))) {
+            for (String entry : header.split(",")) {
+                if (preferenceName(entry).equalsIgnoreCase(preference))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public PreferenceRequestCondition combine(PreferenceRequestCondition other) {
+        return other;
+    }
+
+    @Override
+    public PreferenceRequestCondition getMatchingCondition(HttpServletRequest request) {
+        if (CorsUtils.isPreFlightRequest(request) || isPreferred(request, preference))
+            return this;
+
+        return null;
+    }
+
+    @Override
+    public int compareTo(PreferenceRequestCondition other, HttpServletRequest request) {
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + PREFER + " " + preference + "]";
+    }
+
+    private static String preferenceName(String entry) {
+        int end = entry.length();
+        int parameters = entry.indexOf(';');
+        if (parameters >= 0)
+            end = parameters;
+        int value = entry.indexOf('=');
+        if (value >= 0 && value < end)
+            end = value;
+
+        return entry.substring(0, end).strip();
+    }
+}
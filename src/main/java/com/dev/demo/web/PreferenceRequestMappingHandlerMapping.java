@@ -0,0 +1,18 @@
+package com.dev.demo.web;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.servlet.mvc.condition.RequestCondition;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+
+// A mapping with a preference condition wins over the same mapping without one
+public class PreferenceRequestMappingHandlerMapping extends RequestMappingHandlerMapping {
+
+    @Override
+    protected RequestCondition<?> getCustomMethodCondition(Method method) {
+        RequiresPreference requiresPreference = AnnotatedElementUtils.findMergedAnnotation(method, RequiresPreference.class);
+
+        return requiresPreference == null ? null : new PreferenceRequestCondition(requiresPreference.value());
+    }
+}
@@ -0,0 +1,77 @@
+package com.dev.demo.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Clients are told apart by their API key, or by their address when they send none. Only
+// configured keys count: an unknown key would let a caller start a fresh bucket with every
+// request, so it is treated like no key. The address is the one the servlet container
+// reports, so behind a proxy it relies on the server's forwarded-header handling rather
+// than trusting X-Forwarded-For here
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Longer headers are not looked up at all, so a caller cannot make every request hash kilobytes
+    private static final int MAX_API_KEY_LENGTH = 256;
+
+    private final ClientRateLimiter rateLimiter;
+
+    private final String clientHeader;
+
+    private final Set<String> apiKeys;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<RequestCost, Counter> rejections = new EnumMap<>(RequestCost.class);
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rateLimiter = new ClientRateLimiter(properties);
+        this.clientHeader = properties.clientHeader();
+        this.apiKeys = Set.copyOf(properties.apiKeys());
+        this.objectMapper = objectMapper;
+
+        for (RequestCost cost : RequestCost.values())
+            rejections.put(cost, Counter.builder(RejectedRequests.REJECTIONS_METRIC)
+                    .description("API requests rejected before reaching a controller")
+                    .tag("reason", "rate-limit")
+                    .tag("cost", cost.name().toLowerCase())
+                    .register(meterRegistry));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = clientOf(request);
+        RequestCost cost = RequestCost.of(request);
+
+        if (!rateLimiter.tryAcquire(client, cost)) {
+            rejections.get(cost).increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+                    rateLimiter.nanosUntilNextToken(client, cost) + TimeUnit.SECONDS.toNanos(1) - 1));
+            RejectedRequests.reject(response, objectMapper, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds,
+                    "Too many requests, please retry later");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(clientHeader);
+        return apiKey != null && apiKey.length() <= MAX_API_KEY_LENGTH && apiKeys.contains(apiKey)
+                ? "key:" + apiKey
+                : "address:" + request.getRemoteAddr();
+    }
+}
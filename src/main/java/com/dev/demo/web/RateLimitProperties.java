@@ -0,0 +1,19 @@
+package com.dev.demo.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Set;
+
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("X-API-Key") String clientHeader,
+        @DefaultValue Set<String> apiKeys,
+        @DefaultValue("100000") long maximumClients,
+        @DefaultValue("10") int bulkCapacity,
+        @DefaultValue("2") int bulkRefillPerSecond,
+        @DefaultValue("200") int singleCapacity,
+        @DefaultValue("100") int singleRefillPerSecond
+) {
+}
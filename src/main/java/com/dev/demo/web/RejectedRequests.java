@@ -0,0 +1,33 @@
+package com.dev.demo.web;
+
+import com.dev.demo.exception.ApiErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+
+// The filters reject before Spring MVC is reached, so the error body is written by hand
+// in the same shape GlobalExceptionHandler produces
+final class RejectedRequests {
+
+    static final String REJECTIONS_METRIC = "customer.api.rejections";
+
+    private RejectedRequests() {
+    }
+
+    static void reject(HttpServletResponse response, ObjectMapper objectMapper, HttpStatus status,
+                       long retryAfterSeconds, String message) throws IOException {
+        ApiErrorResponse errorResponse = ApiErrorResponse.builder()
+                .status(status.value())
+                .message(message)
+                .build();
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
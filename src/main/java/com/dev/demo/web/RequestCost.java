@@ -0,0 +1,30 @@
+package com.dev.demo.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+
+import java.util.Set;
+
+// Bulk requests read or write many rows at once: the full list and its pages, the ?ids=
+// lookup, search, export and the batch writes. Everything else touches a single customer
+public enum RequestCost {
+
+    BULK,
+    SINGLE;
+
+    private static final String CUSTOMERS_PATH = "/api/v1/customers";
+
+    private static final Set<String> BULK_PATHS = Set.of(
+            CUSTOMERS_PATH + "/batch",
+            CUSTOMERS_PATH + "/export",
+            CUSTOMERS_PATH + "/search");
+
+    public static RequestCost of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        if (path.equals(CUSTOMERS_PATH))
+            return HttpMethod.POST.matches(request.getMethod()) ? SINGLE : BULK;
+
+        return BULK_PATHS.contains(path) ? BULK : SINGLE;
+    }
+}
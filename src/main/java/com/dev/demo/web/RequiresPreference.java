@@ -0,0 +1,17 @@
+package com.dev.demo.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Maps a handler only when the request's Prefer header carries the given preference,
+// so the mapping without it keeps serving every other request to the same path
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequiresPreference {
+
+    String value();
+}
@@ -0,0 +1,50 @@
+package com.dev.demo.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// A token bucket kept as a single timestamp: the time at which the bucket would be full
+// again. Taking a token pushes it one refill interval further, and a request is refused when
+// that would put it more than a full bucket ahead of now. Acquiring is one CAS with no lock,
+// and a refused request does not write at all, so a client hammering its own bucket only
+// contends with itself
+public class TokenBucket {
+
+    private final long refillIntervalNanos;
+
+    private final long burstNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong fullAtNanos = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(int capacity, int refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(int capacity, int refillPerSecond, LongSupplier nanoClock) {
+        if (capacity < 1 || refillPerSecond < 1)
+            throw new IllegalArgumentException("Capacity and refill rate must be positive");
+
+        this.refillIntervalNanos = 1_000_000_000L / refillPerSecond;
+        this.burstNanos = capacity * refillIntervalNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean tryAcquire() {
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long fullAt = fullAtNanos.get();
+            long next = Math.max(fullAt, now) + refillIntervalNanos;
+            if (next - now > burstNanos)
+                return false;
+            if (fullAtNanos.compareAndSet(fullAt, next))
+                return true;
+        }
+    }
+
+    public long nanosUntilNextToken() {
+        long now = nanoClock.getAsLong();
+        return Math.max(0, Math.max(fullAtNanos.get(), now) + refillIntervalNanos - now - burstNanos);
+    }
+}
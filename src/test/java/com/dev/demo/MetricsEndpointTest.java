@@ -0,0 +1,59 @@
+package com.dev.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTest {
+
+    private final MockMvc mockMvc;
+
+    @Autowired
+    MetricsEndpointTest(MockMvc mockMvc) {
+        this.mockMvc = mockMvc;
+    }
+
+    @Test
+    void TestThat_prometheusEndpoint_ShouldExposeLatencyHistogramsQueryTimingsErrorCountersAndPoolMetrics() throws Exception {
+        //given
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/v1/customers/" + Long.MAX_VALUE)
+                        .accept(MediaType.APPLICATION_JSON)
+        ).andExpect(status().isNotFound());
+
+        //when
+        ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"));
+
+        //then
+        result.andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString(
+                        "uri=\"/api/v1/customers/{id}\",le=")))
+                .andExpect(content().string(containsString(
+                        "spring_data_repository_invocations_seconds_count{exception=\"None\",method=\"findDtoById\",repository=\"CustomerRepository\",state=\"SUCCESS\"}")))
+                .andExpect(content().string(containsString(
+                        "customer_api_errors_total{exception=\"CustomerNotFoundException\",status=\"404\"}")))
+                .andExpect(content().string(containsString(
+                        "hibernate_second_level_cache_requests_total{")))
+                .andExpect(content().string(containsString(
+                        "region=\"customers\"")))
+                .andExpect(content().string(containsString(
+                        "hikaricp_connections_active{pool=\"primary\"}")))
+                .andExpect(content().string(containsString(
+                        "hikaricp_connections_acquire_seconds_bucket{pool=\"primary\",le=")));
+    }
+}
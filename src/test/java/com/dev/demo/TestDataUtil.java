@@ -34,6 +34,15 @@ public class TestDataUtil {
                 .build();
     }
 
+    public static CustomerDto testCustomerDtoB() {
+        return CustomerDto.builder()
+                .id(2L)
+                .name("Bob")
+                .email("bob@gmail.com")
+                .address("US")
+                .build();
+    }
+
     public static CreateCustomerRequest testCreateCustomerRequest() {
         return CreateCustomerRequest.builder()
                 .name("Alice")
@@ -59,6 +68,15 @@ public class TestDataUtil {
                 .build();
     }
 
+    public static CustomerDto testUpdatedCustomerDto() {
+        return CustomerDto.builder()
+                .id(1L)
+                .name("Alice Trump")
+                .email("alicetrump@gmail.com")
+                .address("UK")
+                .build();
+    }
+
     public static UpdateCustomerRequest testUpdateCustomerRequest() {
         return UpdateCustomerRequest.builder()
                 .name("Alice Trump")
@@ -0,0 +1,72 @@
+package com.dev.demo.config;
+
+import com.dev.demo.customer.CustomerChange;
+import com.dev.demo.customer.CustomerChangeType;
+import com.dev.demo.customer.CustomerDto;
+import com.dev.demo.customer.CustomerPage;
+import com.dev.demo.exception.ApiErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonConfigTest {
+
+    // Same defaults as the ObjectMapper Spring Boot hands to the HTTP message converters
+    private final ObjectMapper beanMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final ObjectMapper handWrittenMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new JsonConfig().handWrittenSerializersModule())
+            .build();
+
+    private final CustomerDto customer = CustomerDto.builder()
+            .id(42L)
+            .name("Zo\u00eb \"Z\" O'Brien")
+            .email("zoe+test@gmail.com")
+            .address("Line 1\nLine 2\t\u0001 \u6771\u4eac \uD83D\uDE00 </script>")
+            .version(7L)
+            .build();
+
+    @Test
+    void TestThat_customerDtoSerializer_ShouldWriteTheSameBytesAsTheBeanSerializer() throws Exception {
+        //when
+        //then
+        assertSameBytes(customer);
+    }
+
+    @Test
+    void TestThat_customerDtoSerializer_ShouldWriteTheSameBytesAsTheBeanSerializer_WhenFieldsAreNull() throws Exception {
+        //when
+        //then
+        assertSameBytes(new CustomerDto());
+    }
+
+    @Test
+    void TestThat_customerDtoSerializer_ShouldWriteTheSameBytesAsTheBeanSerializer_WhenNestedInListsAndPages() throws Exception {
+        //when
+        //then
+        assertSameBytes(List.of(customer, new CustomerDto(), customer));
+        assertSameBytes(CustomerPage.builder().content(List.of(customer)).nextCursor(42L).build());
+        assertSameBytes(CustomerChange.builder()
+                .sequence(1L)
+                .type(CustomerChangeType.UPDATED)
+                .id(42L)
+                .customer(customer)
+                .build());
+    }
+
+    @Test
+    void TestThat_apiErrorResponseSerializer_ShouldWriteTheSameBytesAsTheBeanSerializer() throws Exception {
+        //when
+        //then
+        assertSameBytes(ApiErrorResponse.builder().status(404).message("Customer not found with id 42").build());
+        assertSameBytes(new ApiErrorResponse());
+    }
+
+    private void assertSameBytes(Object value) throws Exception {
+        assertThat(handWrittenMapper.writeValueAsBytes(value)).isEqualTo(beanMapper.writeValueAsBytes(value));
+    }
+}
@@ -0,0 +1,117 @@
+package com.dev.demo.config;
+
+import com.dev.demo.customer.Customer;
+import com.dev.demo.customer.CustomerDto;
+import com.dev.demo.customer.CustomerRepository;
+import com.dev.demo.customer.CustomerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password="
+})
+class ReplicaDataSourceConfigTest {
+
+    private static final long REPLICA_ONLY_ID = 9_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private JdbcTemplate replicaJdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        replicaJdbcTemplate.execute("""
+                create table if not exists customers (
+                    id bigint not null primary key,
+                    name varchar(255),
+                    email varchar(255),
+                    address varchar(255),
+                    version bigint default 0 not null
+                )
+                """);
+        replicaJdbcTemplate.update("insert into customers (id, name, email, address) values (?, 'Replica', 'replica@gmail.com', 'US')",
+                REPLICA_ONLY_ID);
+
+        Objects.requireNonNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE)).clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicaJdbcTemplate.execute("drop table customers");
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void TestThat_readOnlyTransactions_ShouldUseReplicaAndReadWriteTransactionsThePrimary() {
+        //given
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        //when
+        String readOnlyUrl = readOnly.execute(status -> connectionUrl());
+        String readWriteUrl = readWrite.execute(status -> connectionUrl());
+
+        //then
+        assertThat(readOnlyUrl).contains("replica");
+        assertThat(readWriteUrl).contains("testdb");
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldReadFromReplica_AndCreateCustomer_ShouldWriteToPrimary() {
+        //when
+        CustomerDto replicaCustomer = customerService.getCustomerById(REPLICA_ONLY_ID);
+        Customer createdCustomer = customerService.createCustomer(Customer.builder()
+                .name("Alice")
+                .email("alice@gmail.com")
+                .address("US")
+                .build());
+
+        //then
+        assertThat(replicaCustomer.getName()).isEqualTo("Replica");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from customers where id = ?", Long.class, createdCustomer.getId()))
+                .isEqualTo(1);
+        assertThat(replicaJdbcTemplate.queryForObject("select count(*) from customers where id = ?", Long.class, createdCustomer.getId()))
+                .isZero();
+    }
+
+    private String connectionUrl() {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+    }
+}
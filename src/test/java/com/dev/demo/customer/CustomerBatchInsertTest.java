@@ -0,0 +1,65 @@
+package com.dev.demo.customer;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CustomerBatchInsertTest {
+
+    private final CustomerService customerService;
+
+    private final CustomerRepository customerRepository;
+
+    private final Statistics statistics;
+
+    @Autowired
+    CustomerBatchInsertTest(CustomerService customerService, CustomerRepository customerRepository, EntityManagerFactory entityManagerFactory) {
+        this.customerService = customerService;
+        this.customerRepository = customerRepository;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.deleteAllInBatch();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void TestThat_createCustomers_ShouldInsertWithJdbcBatches() {
+        //given
+        List<Customer> customersToCreate = IntStream.rangeClosed(1, 200)
+                .mapToObj(i -> Customer.builder()
+                        .name("Customer " + i)
+                        .email("customer" + i + "@gmail.com")
+                        .address("US")
+                        .build())
+                .toList();
+
+        //when
+        List<BatchItemResult> results = customerService.createCustomers(customersToCreate);
+
+        //then
+        assertThat(results).allMatch(result -> result.getStatus() == BatchItemStatus.CREATED);
+        assertThat(customerRepository.count()).isEqualTo(200);
+
+        // 4 insert batches, 4 sequence calls and 1 email lookup instead of 200 single inserts
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+}
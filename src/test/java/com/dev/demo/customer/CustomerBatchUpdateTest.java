@@ -0,0 +1,75 @@
+package com.dev.demo.customer;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CustomerBatchUpdateTest {
+
+    private final CustomerService customerService;
+
+    private final CustomerRepository customerRepository;
+
+    private final Statistics statistics;
+
+    @Autowired
+    CustomerBatchUpdateTest(CustomerService customerService, CustomerRepository customerRepository, EntityManagerFactory entityManagerFactory) {
+        this.customerService = customerService;
+        this.customerRepository = customerRepository;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.deleteAllInBatch();
+        customerService.createCustomers(IntStream.rangeClosed(1, 200)
+                .mapToObj(i -> Customer.builder()
+                        .name("Customer " + i)
+                        .email("customer" + i + "@gmail.com")
+                        .address("US")
+                        .build())
+                .toList());
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void TestThat_partialUpdateCustomers_ShouldLoadInOneQueryAndUpdateWithJdbcBatches() {
+        //given
+        List<Customer> customersToUpdate = customerRepository.findAll().stream()
+                .map(customer -> Customer.builder()
+                        .id(customer.getId())
+                        .version(customer.getVersion())
+                        .address("UK")
+                        .build())
+                .toList();
+        statistics.clear();
+
+        //when
+        List<BatchItemResult> results = customerService.partialUpdateCustomers(customersToUpdate);
+
+        //then
+        assertThat(results).allMatch(result -> result.getStatus() == BatchItemStatus.UPDATED);
+        assertThat(results).allMatch(result -> result.getCustomer().getVersion() == 1L);
+
+        // 1 IN query and 4 update batches instead of 200 reads and 200 updates
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+
+        assertThat(customerRepository.findAll()).allMatch(customer -> customer.getAddress().equals("UK"));
+    }
+}
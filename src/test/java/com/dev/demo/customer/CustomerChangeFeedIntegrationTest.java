@@ -0,0 +1,109 @@
+package com.dev.demo.customer;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Own database, so the ids CustomerControllerIntegrationTest expects from the shared one stay untouched
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:customer-change-feed;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class CustomerChangeFeedIntegrationTest {
+
+    private static final String CUSTOMER_BASED_URL = "/api/v1/customers";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerChangeFeed customerChangeFeed;
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void TestThat_pollChanges_ShouldReturnCommittedChangesAfterSince() throws Exception {
+        //given
+        long since = customerChangeFeed.lastSequence();
+
+        String created = mockMvc.perform(MockMvcRequestBuilders.post(CUSTOMER_BASED_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Alice\", \"email\": \"alice@gmail.com\", \"address\": \"US\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        long id = JsonPath.<Number>read(created, "$.id").longValue();
+
+        mockMvc.perform(MockMvcRequestBuilders.delete(CUSTOMER_BASED_URL + "/" + id))
+                .andExpect(status().isNoContent());
+
+        //when
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/changes")
+                        .param("since", String.valueOf(since))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].type").value("CREATED"))
+                .andExpect(jsonPath("$.content[0].customer.email").value("alice@gmail.com"))
+                .andExpect(jsonPath("$.content[1].type").value("DELETED"))
+                .andExpect(jsonPath("$.content[1].id").value(id))
+                .andExpect(jsonPath("$.content[1].customer").doesNotExist())
+                .andExpect(jsonPath("$.nextSince").value(since + 2))
+                .andDo(print());
+    }
+
+    @Test
+    void TestThat_pollChanges_ShouldWaitForTheNextCommittedChange() throws Exception {
+        //given
+        long since = customerChangeFeed.lastSequence();
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/changes")
+                        .param("since", String.valueOf(since))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //when
+        mockMvc.perform(MockMvcRequestBuilders.post(CUSTOMER_BASED_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Carol\", \"email\": \"carol@gmail.com\", \"address\": \"UK\"}"))
+                .andExpect(status().isCreated());
+
+        //then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].sequence").value(since + 1))
+                .andExpect(jsonPath("$.content[0].customer.email").value("carol@gmail.com"));
+    }
+
+    @Test
+    void TestThat_pollChanges_ShouldReturnHttp410Gone_WhenSinceIsAhead() throws Exception {
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/changes")
+                        .param("since", String.valueOf(customerChangeFeed.lastSequence() + 100))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.status").value(410));
+    }
+}
@@ -0,0 +1,101 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.CustomerChangesUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class CustomerChangeFeedTest {
+
+    private final CustomerChangeFeed underTest = new CustomerChangeFeed(
+            new CustomerChangeFeedProperties(4, 100, Duration.ofSeconds(5)), new SimpleMeterRegistry());
+
+    @Test
+    void TestThat_read_ShouldReturnChangesAfterSinceInSequenceOrder() {
+        //given
+        publish(3);
+
+        //when
+        List<CustomerChange> changes = underTest.read(1, 10);
+
+        //then
+        assertThat(changes).extracting(CustomerChange::getSequence).containsExactly(2L, 3L);
+        assertThat(changes).extracting(CustomerChange::getId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void TestThat_read_ShouldReturnAtMostMaxChanges() {
+        //given
+        publish(3);
+
+        //when
+        List<CustomerChange> changes = underTest.read(0, 2);
+
+        //then
+        assertThat(changes).extracting(CustomerChange::getSequence).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void TestThat_read_ShouldThrowCustomerChangesUnavailableException_WhenChangesWereOverwritten() {
+        //given
+        publish(6);
+
+        //when
+        //then
+        assertThat(underTest.read(2, 10)).extracting(CustomerChange::getSequence).containsExactly(3L, 4L, 5L, 6L);
+        assertThatThrownBy(() -> underTest.read(1, 10))
+                .isInstanceOf(CustomerChangesUnavailableException.class);
+    }
+
+    @Test
+    void TestThat_read_ShouldThrowCustomerChangesUnavailableException_WhenSinceIsAhead() {
+        //given
+        publish(1);
+
+        //when
+        //then
+        assertThatThrownBy(() -> underTest.read(5, 10))
+                .isInstanceOf(CustomerChangesUnavailableException.class);
+    }
+
+    @Test
+    void TestThat_await_ShouldReturnOnceAChangeIsPublished() throws Exception {
+        //given
+        CompletableFuture<List<CustomerChange>> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return underTest.await(0, 10, Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        //when
+        await().during(Duration.ofMillis(100)).atMost(Duration.ofSeconds(1)).until(() -> !waiting.isDone());
+        publish(1);
+
+        //then
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).extracting(CustomerChange::getSequence).containsExactly(1L);
+    }
+
+    @Test
+    void TestThat_await_ShouldReturnEmpty_WhenTimeoutPasses() throws Exception {
+        //when
+        List<CustomerChange> changes = underTest.await(0, 10, Duration.ofMillis(50));
+
+        //then
+        assertThat(changes).isEmpty();
+    }
+
+    private void publish(int count) {
+        for (long id = underTest.lastSequence() + 1, last = id + count; id < last; id++)
+            underTest.onCustomerChanged(new CustomerChangedEvent(CustomerChangeType.UPDATED, id, null));
+    }
+}
@@ -0,0 +1,99 @@
+package com.dev.demo.customer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs against the embedded Tomcat, since its compression is what is under test
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CustomerCompressionTest {
+
+    private static final String CUSTOMER_PAGE_URL = "/api/v1/customers?limit=50";
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            customers.add(Customer.builder()
+                    .name("Customer " + i)
+                    .email("customer" + i + "@gmail.com")
+                    .address("US")
+                    .build());
+        }
+        customerRepository.saveAllAndFlush(customers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void TestThat_getCustomersPage_ShouldBeGzippedWithAWeakETag_WhenClientAcceptsGzip() throws Exception {
+        //when
+        HttpResponse<byte[]> response = get(CUSTOMER_PAGE_URL, "gzip", null);
+
+        //then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        assertThat(response.headers().firstValue(HttpHeaders.ETAG)).hasValueSatisfying(eTag ->
+                assertThat(eTag).startsWith("W/\""));
+        assertThat(gunzip(response.body())).contains("customer49@gmail.com");
+    }
+
+    @Test
+    void TestThat_getCustomersPage_ShouldReturnHttp304NotModified_WhenIfNoneMatchIsTheGzipResponsesETag() throws Exception {
+        //given
+        String eTag = get(CUSTOMER_PAGE_URL, "gzip", null).headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+
+        //when
+        HttpResponse<byte[]> gzipped = get(CUSTOMER_PAGE_URL, "gzip", eTag);
+        HttpResponse<byte[]> identity = get(CUSTOMER_PAGE_URL, "identity", eTag);
+
+        //then
+        assertThat(gzipped.statusCode()).isEqualTo(304);
+        assertThat(identity.statusCode()).isEqualTo(304);
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding, String ifNoneMatch)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        if (ifNoneMatch != null)
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+
+        return httpClient.send(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.dev.demo.customer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Own database, so the ids CustomerControllerIntegrationTest expects from the shared one stay untouched
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:customer-conditional-requests;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class CustomerConditionalRequestTest {
+
+    private static final String CUSTOMER_BASED_URL = "/api/v1/customers";
+
+    private static final String UPDATE_CONTENT = """
+            {"name": "Alice Trump", "email": "alicetrump@gmail.com", "address": "UK"}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.saveAndFlush(Customer.builder()
+                .name("Alice")
+                .email("alice@gmail.com")
+                .address("US")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldReturnHttp304NotModifiedWithoutBody_WhenETagMatches() throws Exception {
+        //given
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/" + customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/" + customer.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+                .andDo(print());
+    }
+
+    @Test
+    void TestThat_getCustomersPage_ShouldReturnHttp304NotModified_UntilACustomerOnThePageChanges() throws Exception {
+        //given
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL).param("limit", "10"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL).param("limit", "10")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(MockMvcRequestBuilders.put(CUSTOMER_BASED_URL + "/" + customer.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE_CONTENT))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL).param("limit", "10")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].address").value("UK"));
+    }
+
+    @Test
+    void TestThat_fullUpdateCustomer_ShouldReturnHttp200OKAndNextETag_WhenIfMatchIsCurrent() throws Exception {
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.put(CUSTOMER_BASED_URL + "/" + customer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE_CONTENT))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.address").value("UK"))
+                .andDo(print());
+    }
+
+    @Test
+    void TestThat_fullUpdateCustomer_ShouldReturnTheWrittenETag_WhenIfMatchIsMissing() throws Exception {
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.put(CUSTOMER_BASED_URL + "/" + customer.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE_CONTENT))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    void TestThat_partialUpdateCustomer_ShouldReturnHttp412PreconditionFailed_WhenIfMatchIsStale() throws Exception {
+        //given
+        mockMvc.perform(MockMvcRequestBuilders.patch(CUSTOMER_BASED_URL + "/" + customer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\": \"FR\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.patch(CUSTOMER_BASED_URL + "/" + customer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\": \"DE\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412))
+                .andDo(print());
+    }
+
+    @Test
+    void TestThat_deleteCustomer_ShouldReturnHttp412PreconditionFailed_WhenIfMatchIsStale() throws Exception {
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.delete(CUSTOMER_BASED_URL + "/" + customer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"7\""))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(MockMvcRequestBuilders.delete(CUSTOMER_BASED_URL + "/" + customer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isNoContent());
+    }
+}
@@ -3,24 +3,34 @@ package com.dev.demo.customer;
 import com.dev.demo.TestDataUtil;
 import com.dev.demo.exception.CustomerNotFoundException;
 import com.dev.demo.exception.EmailAlreadyExistsException;
+import com.dev.demo.exception.InvalidSearchQueryException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.sql.SQLException;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -48,7 +58,7 @@ public class CustomerControllerTest {
     @Test
     void TestThat_getAllCustomers_ShouldReturnHttp200OKAndListOfCustomerDto() throws Exception {
         //given
-        Customer customer = TestDataUtil.testCustomer();
+        CustomerDto customer = TestDataUtil.testCustomerDto();
 
         when(customerService.getAllCustomers()).thenReturn(List.of(customer));
 
@@ -89,6 +99,159 @@ public class CustomerControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    void TestThat_getCustomersPage_ShouldReturnHttp200OKAndPageWithNextCursor_WhenPageIsFull() throws Exception {
+        //given
+        CustomerDto customerA = TestDataUtil.testCustomerDto();
+        CustomerDto customerB = TestDataUtil.testCustomerDtoB();
+
+        when(customerService.getCustomersAfter(null, 2)).thenReturn(List.of(customerA, customerB));
+
+        //when
+        ResultActions result = mockMvc.perform(
+                MockMvcRequestBuilders.get(CUSTOMER_BASED_URL)
+                        .param("limit", "2")
+                        .accept(MediaType.APPLICATION_JSON)
+        );
+
+        //then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(customerA.getId()))
+                .andExpect(jsonPath("$.content[1].id").value(customerB.getId()))
+                .andExpect(jsonPath("$.nextCursor").value(customerB.getId()))
+                .andDo(print());
+    }
+
+    @Test
+    void TestThat_getCustomersPage_ShouldReturnHttp200OKAndNoNextCursor_WhenOnLastPage() throws Exception {
+        //given
+        CustomerDto customerB = TestDataUtil.testCustomerDtoB();
+
+        when(customerService.getCustomersAfter(1L, 2)).thenReturn(List.of(customerB));
+
+        //when
+        ResultActions result = mockMvc.perform(
+                MockMvcRequestBuilders.get(CUSTOMER_BASED_URL)
+                        .param("after", "1")
+                        .param("limit", "2")
+                        .accept(MediaType.APPLICATION_JSON)
+        );
+
+        //then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(customerB.getId()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andDo(print());
+    }
+
+    @Test
+    void TestThat_searchCustomers_ShouldReturnHttp200OKAndRankedPage() throws Exception {
+        //given
+        CustomerDto customer = TestDataUtil.testCustomerDto();
+
+        when(customerService.searchCustomers("alice", 0, 100)).thenReturn(CustomerSearchPage.builder()
+                .content(List.of(customer))
+                .nextPage(1)
+                .build());
+
+        //when
+        ResultActions result = mockMvc.perform(
+                MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/search")
+                        .param("q", "alice")
+                        .param("size", "500")
+                        .accept(MediaType.APPLICATION_JSON)
+        );
+
+        //then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].email").value(customer.getEmail()))
+                .andExpect(jsonPath("$.nextPage").value(1))
+                .andDo(print());
+    }
+
+    @Test
+    void TestThat_searchCustomers_ShouldReturnHttp400BadRequest_WhenQueryIsTooShort() throws Exception {
+        //given
+        String message = "Search query must have at least 3 characters";
+
+        when(customerService.searchCustomers("al", 0, 20)).thenThrow(new InvalidSearchQueryException(message));
+
+        //when
+        ResultActions result = mockMvc.perform(
+                MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/search")
+                        .param("q", "al")
+                        .accept(MediaType.APPLICATION_JSON)
+        );
+
+        //then
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value(message))
+                .andDo(print());
+    }
+
+    @Test
+    void TestThat_exportCustomers_ShouldStreamNdjson_WhenAcceptIsNdjson() throws Exception {
+        //given
+        CustomerDto customerA = TestDataUtil.testCustomerDto();
+        CustomerDto customerB = TestDataUtil.testCustomerDtoB();
+
+        doAnswer(invocation -> {
+            Consumer<CustomerDto> consumer = invocation.getArgument(0);
+            consumer.accept(customerA);
+            consumer.accept(customerB);
+            return null;
+        }).when(customerService).exportCustomers(any());
+
+        String expectedContent = objectMapper.writeValueAsString(TestDataUtil.testCustomerDto()) + "\n"
+                + objectMapper.writeValueAsString(TestDataUtil.testCustomerDtoB()) + "\n";
+
+        //when
+        MvcResult asyncResult = mockMvc.perform(
+                MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/export")
+                        .accept(MediaType.APPLICATION_NDJSON)
+        ).andExpect(request().asyncStarted()).andReturn();
+
+        ResultActions result = mockMvc.perform(asyncDispatch(asyncResult));
+
+        //then
+        result.andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(expectedContent))
+                .andDo(print());
+    }
+
+    @Test
+    void TestThat_exportCustomers_ShouldStreamJsonArray_WhenAcceptIsJson() throws Exception {
+        //given
+        CustomerDto customerA = TestDataUtil.testCustomerDto();
+        CustomerDto customerB = TestDataUtil.testCustomerDtoB();
+
+        doAnswer(invocation -> {
+            Consumer<CustomerDto> consumer = invocation.getArgument(0);
+            consumer.accept(customerA);
+            consumer.accept(customerB);
+            return null;
+        }).when(customerService).exportCustomers(any());
+
+        String expectedContent = objectMapper.writeValueAsString(
+                List.of(TestDataUtil.testCustomerDto(), TestDataUtil.testCustomerDtoB()));
+
+        //when
+        MvcResult asyncResult = mockMvc.perform(
+                MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/export")
+                        .accept(MediaType.APPLICATION_JSON)
+        ).andExpect(request().asyncStarted()).andReturn();
+
+        ResultActions result = mockMvc.perform(asyncDispatch(asyncResult));
+
+        //then
+        result.andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(expectedContent))
+                .andDo(print());
+    }
+
     @Test
     void TestThat_createCustomer_ShouldReturnHttp201CreatedAndCreatedCustomerDto() throws Exception {
         //given
@@ -121,6 +284,86 @@ public class CustomerControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    void TestThat_createCustomers_ShouldReturnHttp200OKAndPerItemResults() throws Exception {
+        //given
+        List<CreateCustomerRequest> createCustomerRequests = List.of(
+                TestDataUtil.testCreateCustomerRequest(),
+                TestDataUtil.testCreateCustomerRequestB()
+        );
+
+        Customer createdCustomer = TestDataUtil.testCustomer();
+
+        String message = "Email " + TestDataUtil.testCustomerB().getEmail() + " already exists";
+
+        when(customerService.createCustomers(anyList())).thenReturn(List.of(
+                BatchItemResult.builder().index(0).status(BatchItemStatus.CREATED).customer(createdCustomer).build(),
+                BatchItemResult.builder().index(1).status(BatchItemStatus.CONFLICT).message(message).build()
+        ));
+
+        String content = objectMapper.writeValueAsString(createCustomerRequests);
+
+        //when
+        ResultActions result = mockMvc.perform(
+                MockMvcRequestBuilders.post(CUSTOMER_BASED_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(content)
+        );
+
+        //then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].customer.id").value(createdCustomer.getId()))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[1].message").value(message))
+                .andExpect(jsonPath("$[1].customer").doesNotExist())
+                .andDo(print());
+    }
+
+    @Test
+    void TestThat_partialUpdateCustomers_ShouldReturnHttp200OKAndPerItemResults() throws Exception {
+        //given
+        List<BatchUpdateCustomerRequest> batchUpdateCustomerRequests = List.of(
+                BatchUpdateCustomerRequest.builder()
+                        .id(1L)
+                        .changes(UpdateCustomerRequest.builder().address("UK").build())
+                        .build(),
+                BatchUpdateCustomerRequest.builder()
+                        .id(99L)
+                        .changes(UpdateCustomerRequest.builder().address("UK").build())
+                        .build()
+        );
+
+        Customer updatedCustomer = TestDataUtil.testCustomer();
+        updatedCustomer.setAddress("UK");
+
+        when(customerService.partialUpdateCustomers(anyList())).thenReturn(List.of(
+                BatchItemResult.builder().index(0).status(BatchItemStatus.UPDATED).customer(updatedCustomer).build(),
+                BatchItemResult.builder().index(1).status(BatchItemStatus.NOT_FOUND).message("Customer not found with id 99").build()
+        ));
+
+        String content = objectMapper.writeValueAsString(batchUpdateCustomerRequests);
+
+        //when
+        ResultActions result = mockMvc.perform(
+                MockMvcRequestBuilders.patch(CUSTOMER_BASED_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(content)
+        );
+
+        //then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$[0].customer.address").value("UK"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[1].customer").doesNotExist())
+                .andDo(print());
+    }
+
     @Test
     void TestThat_createCustomer_ShouldReturnHttp400BadRequest_WhenEmailAlreadyExists() throws Exception {
         //given
@@ -149,10 +392,79 @@ public class CustomerControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    void TestThat_createCustomer_ShouldReturnHttp400BadRequest_WhenEmailUniqueIndexIsViolated() throws Exception {
+        //given
+        CreateCustomerRequest createCustomerRequest = TestDataUtil.testCreateCustomerRequest();
+
+        String content = objectMapper.writeValueAsString(createCustomerRequest);
+
+        when(customerService.createCustomer(any(Customer.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("duplicate key", new SQLException(), Customer.EMAIL_UNIQUE_INDEX)));
+
+        //when
+        ResultActions result = mockMvc.perform(
+                MockMvcRequestBuilders.post(CUSTOMER_BASED_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(content)
+        );
+
+        //then
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Email already exists"))
+                .andDo(print());
+    }
+
+    @Test
+    void TestThat_getCustomersByIds_ShouldReturnHttp200OKAndFoundCustomersWithMissingIds() throws Exception {
+        //given
+        CustomerDto customer = TestDataUtil.testCustomerDto();
+
+        when(customerService.getCustomersByIds(List.of(customer.getId(), 999L))).thenReturn(CustomerLookupResult.builder()
+                .content(List.of(customer))
+                .missingIds(List.of(999L))
+                .build());
+
+        //when
+        ResultActions result = mockMvc.perform(
+                MockMvcRequestBuilders.get(CUSTOMER_BASED_URL)
+                        .param("ids", customer.getId() + ",999")
+                        .accept(MediaType.APPLICATION_JSON)
+        );
+
+        //then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(customer.getId()))
+                .andExpect(jsonPath("$.missingIds[0]").value(999))
+                .andDo(print());
+    }
+
+    @Test
+    void TestThat_getCustomersByIds_ShouldReturnHttp400BadRequest_WhenTooManyIdsAreGiven() throws Exception {
+        //given
+        String ids = String.join(",", LongStream.rangeClosed(1, 1001).mapToObj(Long::toString).toList());
+
+        //when
+        ResultActions result = mockMvc.perform(
+                MockMvcRequestBuilders.get(CUSTOMER_BASED_URL)
+                        .param("ids", ids)
+                        .accept(MediaType.APPLICATION_JSON)
+        );
+
+        //then
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andDo(print());
+        verify(customerService, never()).getCustomersByIds(anyList());
+    }
+
     @Test
     void TestThat_getCustomerById_ShouldReturnHttp200OKAndFoundCustomerDto() throws Exception {
         //given
-        Customer customer = TestDataUtil.testCustomer();
+        CustomerDto customer = TestDataUtil.testCustomerDto();
         Long id = customer.getId();
 
         when(customerService.getCustomerById(anyLong())).thenReturn(customer);
@@ -201,13 +513,13 @@ public class CustomerControllerTest {
     @Test
     void TestThat_fullUpdateCustomer_ShouldReturnHttp200OKAndUpdatedCustomerDto() throws Exception {
         //given
-        Customer updatedCustomer = TestDataUtil.testUpdatedCustomer();
+        CustomerDto updatedCustomer = TestDataUtil.testUpdatedCustomerDto();
         Long id = updatedCustomer.getId();
 
         UpdateCustomerRequest updateCustomerRequest = TestDataUtil.testUpdateCustomerRequest();
         String content = objectMapper.writeValueAsString(updateCustomerRequest);
 
-        when(customerService.fullUpdateCustomer(anyLong(), any(Customer.class)))
+        when(customerService.fullUpdateCustomer(anyLong(), isNull(), any(Customer.class)))
                 .thenReturn(updatedCustomer);
 
         //when
@@ -237,7 +549,7 @@ public class CustomerControllerTest {
 
         String message = "Customer not found with id " + id;
 
-        when(customerService.fullUpdateCustomer(anyLong(), any(Customer.class)))
+        when(customerService.fullUpdateCustomer(anyLong(), isNull(), any(Customer.class)))
                 .thenThrow(new CustomerNotFoundException(message));
 
         //when
@@ -267,7 +579,7 @@ public class CustomerControllerTest {
 
         String message = "Email " + email + " already exists";
 
-        when(customerService.fullUpdateCustomer(anyLong(), any(Customer.class)))
+        when(customerService.fullUpdateCustomer(anyLong(), isNull(), any(Customer.class)))
                 .thenThrow(new EmailAlreadyExistsException(message));
 
         //when
@@ -288,13 +600,13 @@ public class CustomerControllerTest {
     @Test
     void TestThat_partialUpdateCustomer_ShouldReturnHttp200OKAndFullUpdatedCustomerDto() throws Exception {
         //given
-        Customer updatedCustomer = TestDataUtil.testUpdatedCustomer();
+        CustomerDto updatedCustomer = TestDataUtil.testUpdatedCustomerDto();
         Long id = updatedCustomer.getId();
 
         UpdateCustomerRequest updateCustomerRequest = TestDataUtil.testUpdateCustomerRequest();
         String content = objectMapper.writeValueAsString(updateCustomerRequest);
 
-        when(customerService.partialUpdate(anyLong(), any(Customer.class)))
+        when(customerService.partialUpdate(anyLong(), isNull(), any(Customer.class)))
                 .thenReturn(updatedCustomer);
 
         //when
@@ -317,7 +629,7 @@ public class CustomerControllerTest {
     @Test
     void TestThat_partialUpdateCustomer_ShouldReturnHttp200OKAndOnlyUpdateCustomerName() throws Exception {
         //given
-        Customer updatedCustomer = TestDataUtil.testCustomer();
+        CustomerDto updatedCustomer = TestDataUtil.testCustomerDto();
         Long id = updatedCustomer.getId();
 
         String newName = "Alice Trump";
@@ -330,7 +642,7 @@ public class CustomerControllerTest {
 
         updatedCustomer.setName(newName);
 
-        when(customerService.partialUpdate(anyLong(), any(Customer.class)))
+        when(customerService.partialUpdate(anyLong(), isNull(), any(Customer.class)))
                 .thenReturn(updatedCustomer);
 
         //when
@@ -353,7 +665,7 @@ public class CustomerControllerTest {
     @Test
     void TestThat_partialUpdateCustomer_ShouldReturnHttp200OKAndOnlyUpdateCustomerEmail() throws Exception {
         //given
-        Customer updatedCustomer = TestDataUtil.testCustomer();
+        CustomerDto updatedCustomer = TestDataUtil.testCustomerDto();
         Long id = updatedCustomer.getId();
 
         String newEmail = "alicetrump@gmail.com";
@@ -366,7 +678,7 @@ public class CustomerControllerTest {
 
         updatedCustomer.setEmail(newEmail);
 
-        when(customerService.partialUpdate(anyLong(), any(Customer.class)))
+        when(customerService.partialUpdate(anyLong(), isNull(), any(Customer.class)))
                 .thenReturn(updatedCustomer);
 
         //when
@@ -389,7 +701,7 @@ public class CustomerControllerTest {
     @Test
     void TestThat_partialUpdateCustomer_ShouldReturnHttp200OKAndOnlyUpdateCustomerAddress() throws Exception {
         //given
-        Customer updatedCustomer = TestDataUtil.testCustomer();
+        CustomerDto updatedCustomer = TestDataUtil.testCustomerDto();
         Long id = updatedCustomer.getId();
 
         String newAddress = "UK";
@@ -402,7 +714,7 @@ public class CustomerControllerTest {
 
         updatedCustomer.setAddress(newAddress);
 
-        when(customerService.partialUpdate(anyLong(), any(Customer.class)))
+        when(customerService.partialUpdate(anyLong(), isNull(), any(Customer.class)))
                 .thenReturn(updatedCustomer);
 
         //when
@@ -432,7 +744,7 @@ public class CustomerControllerTest {
 
         String message = "Customer not found with id " + id;
 
-        when(customerService.partialUpdate(anyLong(), any(Customer.class)))
+        when(customerService.partialUpdate(anyLong(), isNull(), any(Customer.class)))
                 .thenThrow(new CustomerNotFoundException(message));
 
         //when
@@ -462,7 +774,7 @@ public class CustomerControllerTest {
 
         String message = "Email " + email + " already exists";
 
-        when(customerService.partialUpdate(anyLong(), any(Customer.class)))
+        when(customerService.partialUpdate(anyLong(), isNull(), any(Customer.class)))
                 .thenThrow(new EmailAlreadyExistsException(message));
 
         //when
@@ -485,7 +797,7 @@ public class CustomerControllerTest {
         //given
         Long id = 1L;
 
-        doNothing().when(customerService).deleteCustomer(anyLong());
+        doNothing().when(customerService).deleteCustomer(anyLong(), isNull());
 
         //when
         ResultActions result = mockMvc.perform(
@@ -508,7 +820,7 @@ public class CustomerControllerTest {
 
         doThrow(new CustomerNotFoundException(message))
                 .when(customerService)
-                .deleteCustomer(anyLong());
+                .deleteCustomer(anyLong(), isNull());
 
         //when
         ResultActions result = mockMvc.perform(
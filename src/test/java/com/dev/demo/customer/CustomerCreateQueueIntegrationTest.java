@@ -0,0 +1,99 @@
+package com.dev.demo.customer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "app.customer.create-queue.enabled=true")
+@AutoConfigureMockMvc
+class CustomerCreateQueueIntegrationTest {
+
+    private static final String CUSTOMER_BASED_URL = "/api/v1/customers";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void TestThat_createCustomer_ShouldReturnHttp202AcceptedAndEventuallyCreate_WhenAsyncIsPreferred() throws Exception {
+        //when
+        String location = mockMvc.perform(MockMvcRequestBuilders.post(CUSTOMER_BASED_URL)
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Alice", "email": "alice.async@gmail.com", "address": "US"}
+                                """))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andDo(print())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.LOCATION);
+
+        //then
+        assertThat(location).contains(CUSTOMER_BASED_URL + "/creations/");
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                mockMvc.perform(MockMvcRequestBuilders.get(location))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.status").value("CREATED"))
+                        .andExpect(jsonPath("$.customer.email").value("alice.async@gmail.com")));
+        assertThat(customerRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void TestThat_createCustomer_ShouldReturnHttp202Accepted_WhenAsyncIsPreferredAmongOtherPreferences() throws Exception {
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.post(CUSTOMER_BASED_URL)
+                        .header("Prefer", "wait=5, Respond-Async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Carol", "email": "carol.async@gmail.com", "address": "US"}
+                                """))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"));
+    }
+
+    @Test
+    void TestThat_createCustomer_ShouldStaySynchronous_WhenAsyncIsNotPreferred() throws Exception {
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.post(CUSTOMER_BASED_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Bob", "email": "bob.sync@gmail.com", "address": "US"}
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email").value("bob.sync@gmail.com"));
+    }
+
+    @Test
+    void TestThat_getCreateStatus_ShouldReturnHttp404NotFound_WhenCreationIsUnknown() throws Exception {
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/creations/unknown"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
+}
@@ -0,0 +1,226 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.CustomerCreateRejectedException;
+import com.dev.demo.exception.CustomerCreateUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerCreateQueueTest {
+
+    @Mock
+    private CustomerService customerService;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private final CountDownLatch firstBatchStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+
+    private CustomerCreateQueue underTest;
+
+    @AfterEach
+    void tearDown() {
+        releaseFirstBatch.countDown();
+        if (underTest != null && underTest.isRunning())
+            underTest.stop();
+    }
+
+    @Test
+    void TestThat_enqueue_ShouldCoalesceCreatesQueuedDuringAWriteIntoOneBatch() throws Exception {
+        //given
+        List<Integer> batchSizes = blockFirstBatch();
+        underTest = startQueue(100);
+
+        CustomerCreateStatusDto first = underTest.enqueue(customer(0));
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        //when
+        List<CustomerCreateStatusDto> queued = new ArrayList<>();
+        for (int i = 1; i <= 3; i++)
+            queued.add(underTest.enqueue(customer(i)));
+
+        releaseFirstBatch.countDown();
+
+        //then
+        assertThat(first.getStatus()).isEqualTo(CustomerCreateStatus.PENDING);
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(queued).allSatisfy(status -> assertThat(underTest.getStatus(status.getId()))
+                        .get()
+                        .extracting(CustomerCreateStatusDto::getStatus)
+                        .isEqualTo(CustomerCreateStatus.CREATED)));
+        assertThat(batchSizes).containsExactly(1, 3);
+    }
+
+    @Test
+    void TestThat_enqueue_ShouldThrowCustomerCreateRejectedException_WhenQueueIsFull() throws Exception {
+        //given
+        blockFirstBatch();
+        underTest = startQueue(1);
+
+        underTest.enqueue(customer(0));
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        underTest.enqueue(customer(1));
+
+        //when
+        //then
+        assertThatThrownBy(() -> underTest.enqueue(customer(2)))
+                .isInstanceOf(CustomerCreateRejectedException.class)
+                .hasMessageContaining("full");
+    }
+
+    @Test
+    void TestThat_stop_ShouldDrainQueuedCreatesAndRejectNewOnes() throws Exception {
+        //given
+        blockFirstBatch();
+        underTest = startQueue(100);
+
+        underTest.enqueue(customer(0));
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<CustomerCreateStatusDto> queued = new ArrayList<>();
+        for (int i = 1; i <= 5; i++)
+            queued.add(underTest.enqueue(customer(i)));
+
+        //when
+        CompletableFuture<Void> stopped = CompletableFuture.runAsync(underTest::stop);
+        await().atMost(Duration.ofSeconds(5)).until(() -> !underTest.isRunning());
+        releaseFirstBatch.countDown();
+        stopped.get(5, TimeUnit.SECONDS);
+
+        //then
+        assertThat(underTest.size()).isZero();
+        assertThat(queued).allSatisfy(status -> assertThat(underTest.getStatus(status.getId()))
+                .get()
+                .extracting(CustomerCreateStatusDto::getStatus)
+                .isEqualTo(CustomerCreateStatus.CREATED));
+        assertThatThrownBy(() -> underTest.enqueue(customer(6)))
+                .isInstanceOf(CustomerCreateUnavailableException.class);
+    }
+
+    @Test
+    void TestThat_enqueue_ShouldMarkTheBatchFailed_WhenTheWriteThrows() {
+        //given
+        when(customerService.createCustomers(anyList())).thenThrow(new IllegalStateException("database is down"));
+        underTest = startQueue(100);
+
+        //when
+        CustomerCreateStatusDto status = underTest.enqueue(customer(0));
+
+        //then
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(underTest.getStatus(status.getId()))
+                        .get()
+                        .extracting(CustomerCreateStatusDto::getStatus)
+                        .isEqualTo(CustomerCreateStatus.FAILED));
+    }
+
+    @Test
+    void TestThat_enqueue_ShouldRetryTheBatchOneByOne_WhenTheWriteThrows() throws Exception {
+        //given
+        List<Integer> batchSizes = blockFirstBatch();
+        underTest = startQueue(100);
+
+        underTest.enqueue(customer(0));
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Customer broken = customer(1);
+        CustomerCreateStatusDto brokenStatus = underTest.enqueue(broken);
+        CustomerCreateStatusDto healthyStatus = underTest.enqueue(customer(2));
+
+        // Restubbed with doAnswer, since when() would run the blocking answer on this thread
+        doAnswer(invocation -> {
+            List<Customer> customers = invocation.getArgument(0);
+            batchSizes.add(customers.size());
+
+            if (customers.contains(broken))
+                throw new IllegalStateException("value too long for column address");
+            return created(customers);
+        }).when(customerService).createCustomers(anyList());
+
+        //when
+        releaseFirstBatch.countDown();
+
+        //then
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(underTest.getStatus(brokenStatus.getId())).get()
+                    .extracting(CustomerCreateStatusDto::getStatus)
+                    .isEqualTo(CustomerCreateStatus.FAILED);
+            assertThat(underTest.getStatus(healthyStatus.getId())).get()
+                    .extracting(CustomerCreateStatusDto::getStatus)
+                    .isEqualTo(CustomerCreateStatus.CREATED);
+        });
+        assertThat(batchSizes).containsExactly(1, 2, 1, 1);
+    }
+
+    private CustomerCreateQueue startQueue(int capacity) {
+        CustomerCreateQueueProperties properties = new CustomerCreateQueueProperties(
+                true, capacity, 500, Duration.ofSeconds(5), Duration.ofMinutes(10), 100_000);
+
+        CustomerCreateQueue queue = new CustomerCreateQueue(customerService, new CustomerMapper(), properties,
+                new SimpleMeterRegistry());
+        queue.start();
+        return queue;
+    }
+
+    // The first write blocks until released, so later creates pile up in the queue
+    private List<Integer> blockFirstBatch() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        when(customerService.createCustomers(anyList())).thenAnswer(invocation -> {
+            List<Customer> customers = invocation.getArgument(0);
+            batchSizes.add(customers.size());
+
+            if (batchSizes.size() == 1) {
+                firstBatchStarted.countDown();
+                releaseFirstBatch.await(5, TimeUnit.SECONDS);
+            }
+
+            return created(customers);
+        });
+
+        return batchSizes;
+    }
+
+    private List<BatchItemResult> created(List<Customer> customers) {
+        List<BatchItemResult> results = new ArrayList<>(customers.size());
+        for (int i = 0; i < customers.size(); i++) {
+            Customer customer = customers.get(i);
+            customer.setId(ids.incrementAndGet());
+
+            results.add(BatchItemResult.builder()
+                    .index(i)
+                    .status(BatchItemStatus.CREATED)
+                    .customer(customer)
+                    .build());
+        }
+        return results;
+    }
+
+    private static Customer customer(int i) {
+        return Customer.builder()
+                .name("Customer " + i)
+                .email("customer" + i + "@gmail.com")
+                .address("US")
+                .build();
+    }
+}
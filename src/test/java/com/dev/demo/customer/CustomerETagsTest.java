@@ -0,0 +1,36 @@
+package com.dev.demo.customer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerETagsTest {
+
+    @Test
+    void TestThat_of_ShouldGiveDifferentListsDifferentETags_WhenAPolynomialHashWouldCollide() {
+        //given
+        List<CustomerDto> first = List.of(CustomerDto.builder().id(1L).version(31L).build());
+        List<CustomerDto> second = List.of(CustomerDto.builder().id(2L).version(0L).build());
+
+        //when
+        String firstETag = CustomerETags.of(first);
+        String secondETag = CustomerETags.of(second);
+
+        //then
+        assertThat(firstETag).startsWith("W/\"").isNotEqualTo(secondETag);
+    }
+
+    @Test
+    void TestThat_of_ShouldGiveTheSameListTheSameETag() {
+        //given
+        List<CustomerDto> customers = List.of(
+                CustomerDto.builder().id(1L).version(3L).build(),
+                CustomerDto.builder().id(2L).version(null).build());
+
+        //then
+        assertThat(CustomerETags.of(customers)).isEqualTo(CustomerETags.of(List.copyOf(customers)));
+        assertThat(CustomerETags.of(customers)).isNotEqualTo(CustomerETags.of(customers.subList(0, 1)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.EmailAlreadyExistsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CustomerEmailUniquenessTest {
+
+    private static final int CONCURRENT_REQUESTS = 16;
+
+    private final CustomerService customerService;
+
+    private final CustomerRepository customerRepository;
+
+    @Autowired
+    CustomerEmailUniquenessTest(CustomerService customerService, CustomerRepository customerRepository) {
+        this.customerService = customerService;
+        this.customerRepository = customerRepository;
+    }
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void TestThat_createCustomer_ShouldLetExactlyOneRequestWin_WhenCreatingTheSameEmailConcurrently() throws Exception {
+        //given
+        String email = "alice@gmail.com";
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+
+        List<Future<Customer>> futures = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            Customer customer = Customer.builder().name("Alice " + i).email(email).address("US").build();
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                return customerService.createCustomer(customer);
+            }));
+        }
+
+        //when
+        startSignal.countDown();
+
+        int created = 0;
+        int rejected = 0;
+        for (Future<Customer> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+                created++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(EmailAlreadyExistsException.class);
+                rejected++;
+            }
+        }
+        executor.shutdown();
+
+        //then
+        assertThat(created).isEqualTo(1);
+        assertThat(rejected).isEqualTo(CONCURRENT_REQUESTS - 1);
+        assertThat(customerRepository.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,170 @@
+package com.dev.demo.customer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Loads a million rows, so it only runs with -Pperformance, which forks it with a heap far
+// smaller than the exported table. The rows live in a file database to keep them off that
+// heap, and the HTTP exports are read through a real server so nothing buffers the body
+@Tag("performance")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "spring.datasource.url=jdbc:h2:file:./target/h2/customer-export"
+        }
+)
+class CustomerExportTest {
+
+    private static final int CUSTOMER_COUNT = 1_000_000;
+
+    private static final String EXPORT_URL = "/api/v1/customers/export";
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private final CustomerService customerService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Statistics statistics;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    CustomerExportTest(
+            CustomerService customerService,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            EntityManagerFactory entityManagerFactory
+    ) {
+        this.customerService = customerService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from customers");
+        jdbcTemplate.update("""
+                insert into customers (id, name, email, address)
+                select x, 'Customer ' || x, 'customer' || x || '@gmail.com', 'US'
+                from system_range(1, ?)
+                """, CUSTOMER_COUNT);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from customers");
+    }
+
+    @Test
+    void TestThat_exportCustomers_ShouldStreamEveryCustomerInIdOrderFromOneQuery_WhenExportingOneMillionCustomers() {
+        //given
+        AtomicInteger exportedCount = new AtomicInteger();
+        AtomicLong lastId = new AtomicLong();
+
+        //when
+        customerService.exportCustomers(customer -> {
+            assertThat(customer.getId()).isGreaterThan(lastId.getAndSet(customer.getId()));
+            exportedCount.incrementAndGet();
+        });
+
+        //then
+        assertThat(exportedCount.get()).isEqualTo(CUSTOMER_COUNT);
+
+        // One cursor over the table, no paging queries, and no entity ever hydrated
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getEntityFetchCount()).isZero();
+    }
+
+    @Test
+    void TestThat_exportCustomersAsNdjson_ShouldStreamOneLinePerCustomerInIdOrder_WhenExportingOneMillionCustomers()
+            throws Exception {
+        //given
+        int exportedCount = 0;
+        long lastId = 0;
+
+        //when
+        HttpResponse<InputStream> response = export(MediaType.APPLICATION_NDJSON);
+
+        //then
+        assertThat(response.statusCode()).isEqualTo(200);
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                CustomerDto customer = objectMapper.readValue(line, CustomerDto.class);
+                assertThat(customer.getId()).isGreaterThan(lastId);
+                lastId = customer.getId();
+                exportedCount++;
+            }
+        }
+        assertThat(exportedCount).isEqualTo(CUSTOMER_COUNT);
+    }
+
+    @Test
+    void TestThat_exportCustomersAsJsonArray_ShouldStreamEveryCustomerInIdOrder_WhenExportingOneMillionCustomers()
+            throws Exception {
+        //given
+        int exportedCount = 0;
+        long lastId = 0;
+
+        //when
+        HttpResponse<InputStream> response = export(MediaType.APPLICATION_JSON);
+
+        //then
+        assertThat(response.statusCode()).isEqualTo(200);
+        try (JsonParser parser = objectMapper.createParser(response.body())) {
+            assertThat(parser.nextToken()).isEqualTo(JsonToken.START_ARRAY);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                CustomerDto customer = parser.readValueAs(CustomerDto.class);
+                assertThat(customer.getId()).isGreaterThan(lastId);
+                lastId = customer.getId();
+                exportedCount++;
+            }
+            assertThat(parser.currentToken()).isEqualTo(JsonToken.END_ARRAY);
+        }
+        assertThat(exportedCount).isEqualTo(CUSTOMER_COUNT);
+    }
+
+    private HttpResponse<InputStream> export(MediaType mediaType) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + EXPORT_URL))
+                .header(HttpHeaders.ACCEPT, mediaType.toString())
+                .GET()
+                .build();
+
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+    }
+}
@@ -0,0 +1,198 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.CustomerNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerLookupCoalescerTest {
+
+    @Mock
+    private CustomerService customerService;
+
+    private final ConcurrentMapCache customersCache = new ConcurrentMapCache("customers");
+
+    private CustomerLookupCoalescer underTest;
+
+    @AfterEach
+    void tearDown() {
+        if (underTest != null && underTest.isRunning())
+            underTest.stop();
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldResolveConcurrentLookupsWithOneQuery_WhenTheyArriveWithinTheWindow() throws Exception {
+        //given
+        List<Integer> batchSizes = answerExistingIdsUpTo(100);
+        underTest = startCoalescer(Duration.ofMillis(200), 100);
+
+        ExecutorService clients = Executors.newFixedThreadPool(20);
+
+        //when
+        List<Future<CustomerDto>> lookups = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            long customerId = id;
+            lookups.add(clients.submit(() -> underTest.getCustomerById(customerId)));
+        }
+
+        //then
+        for (int i = 0; i < lookups.size(); i++)
+            assertThat(lookups.get(i).get(5, TimeUnit.SECONDS).getId()).isEqualTo(i + 1L);
+        clients.shutdown();
+        assertThat(batchSizes).hasSizeLessThan(20);
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(20);
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldThrowCustomerNotFoundException_WhenIdIsMissingFromTheBatch() {
+        //given
+        answerExistingIdsUpTo(10);
+        underTest = startCoalescer(Duration.ofMillis(1), 100);
+
+        //when
+        //then
+        assertThatThrownBy(() -> underTest.getCustomerById(11L))
+                .isInstanceOf(CustomerNotFoundException.class)
+                .hasMessageContaining("Customer not found with id 11");
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldServeFromCacheWithoutQuerying_WhenCustomerIsCached() {
+        //given
+        answerExistingIdsUpTo(10);
+        underTest = startCoalescer(Duration.ofMillis(1), 100);
+        underTest.getCustomerById(3L);
+
+        //when
+        CustomerDto result = underTest.getCustomerById(3L);
+
+        //then
+        assertThat(result.getId()).isEqualTo(3L);
+        verify(customerService, times(1)).getCustomersByIds(anyCollection());
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldRethrowTheQueryFailure_WhenTheBatchFails() {
+        //given
+        when(customerService.getCustomersByIds(anyCollection())).thenThrow(new IllegalStateException("database is down"));
+        underTest = startCoalescer(Duration.ofMillis(1), 100);
+
+        //when
+        //then
+        assertThatThrownBy(() -> underTest.getCustomerById(1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("database is down");
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldFallBackToADirectRead_WhenTheDispatcherDiesOfAnError() {
+        //given
+        when(customerService.getCustomersByIds(anyCollection())).thenThrow(new AssertionError("dispatcher failure"));
+        when(customerService.getCustomerById(2L)).thenReturn(CustomerDto.builder().id(2L).build());
+        underTest = startCoalescer(Duration.ofMillis(1), 100);
+
+        assertThatThrownBy(() -> underTest.getCustomerById(1L))
+                .isInstanceOf(AssertionError.class)
+                .hasMessage("dispatcher failure");
+        // The error also escapes the dispatcher thread, which Awaitility would otherwise report as a failure
+        await().dontCatchUncaughtExceptions().atMost(Duration.ofSeconds(5)).until(() -> !underTest.isRunning());
+
+        //when
+        CustomerDto result = underTest.getCustomerById(2L);
+
+        //then
+        assertThat(result.getId()).isEqualTo(2L);
+        verify(customerService, times(1)).getCustomersByIds(anyCollection());
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldFallBackToADirectRead_WhenTheBatchTakesLongerThanTheTimeout() throws Exception {
+        //given
+        CountDownLatch releaseBatch = new CountDownLatch(1);
+        when(customerService.getCustomersByIds(anyCollection())).thenAnswer(invocation -> {
+            releaseBatch.await(5, TimeUnit.SECONDS);
+            return new CustomerLookupResult(List.of(), List.of());
+        });
+        when(customerService.getCustomerById(1L)).thenReturn(CustomerDto.builder().id(1L).build());
+        underTest = startCoalescer(Duration.ofMillis(1), 100, Duration.ofMillis(50));
+
+        //when
+        CustomerDto result = underTest.getCustomerById(1L);
+
+        //then
+        assertThat(result.getId()).isEqualTo(1L);
+        verify(customerService).getCustomerById(1L);
+        releaseBatch.countDown();
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldNotCacheTheReadRow_WhenAnUpdateCommitsWhileTheBatchIsRead() {
+        //given
+        when(customerService.getCustomersByIds(anyCollection())).thenAnswer(invocation -> {
+            underTest.onCustomerChanged(new CustomerChangedEvent(CustomerChangeType.UPDATED, 1L, null));
+            return new CustomerLookupResult(List.of(CustomerDto.builder().id(1L).version(0L).build()), List.of());
+        });
+        underTest = startCoalescer(Duration.ofMillis(1), 100);
+
+        //when
+        CustomerDto result = underTest.getCustomerById(1L);
+
+        //then
+        assertThat(result.getVersion()).isZero();
+        assertThat(customersCache.get(1L)).isNull();
+    }
+
+    private CustomerLookupCoalescer startCoalescer(Duration window, int maxBatchSize) {
+        return startCoalescer(window, maxBatchSize, Duration.ofSeconds(5));
+    }
+
+    private CustomerLookupCoalescer startCoalescer(Duration window, int maxBatchSize, Duration timeout) {
+        CustomerLookupCoalescerProperties properties = new CustomerLookupCoalescerProperties(true, window, maxBatchSize, timeout);
+
+        CustomerLookupCoalescer coalescer = new CustomerLookupCoalescer(customerService, customersCache, properties,
+                new SimpleMeterRegistry());
+        coalescer.start();
+        return coalescer;
+    }
+
+    private List<Integer> answerExistingIdsUpTo(long maxId) {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        when(customerService.getCustomersByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            batchSizes.add(ids.size());
+
+            return CustomerLookupResult.builder()
+                    .content(ids.stream()
+                            .filter(id -> id <= maxId)
+                            .map(id -> CustomerDto.builder().id(id).name("Customer " + id).build())
+                            .toList())
+                    .missingIds(ids.stream().filter(id -> id > maxId).toList())
+                    .build();
+        });
+
+        return batchSizes;
+    }
+}
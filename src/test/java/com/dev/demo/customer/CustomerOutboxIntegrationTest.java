@@ -0,0 +1,122 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.EmailAlreadyExistsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+        "app.customer.outbox.enabled=true",
+        "app.customer.outbox.poll-interval=50ms",
+        "app.customer.outbox.retry-backoff=50ms"
+})
+class CustomerOutboxIntegrationTest {
+
+    @TestConfiguration
+    static class OutboxSinkConfig {
+
+        @Bean
+        @Primary
+        InMemoryCustomerOutboxSink inMemoryCustomerOutboxSink() {
+            return new InMemoryCustomerOutboxSink();
+        }
+    }
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerOutboxRepository customerOutboxRepository;
+
+    @Autowired
+    private InMemoryCustomerOutboxSink sink;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        sink.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAllInBatch();
+        await().atMost(Duration.ofSeconds(5)).until(() -> customerOutboxRepository.count() == 0);
+    }
+
+    @Test
+    void TestThat_relay_ShouldDeliverCreateUpdateAndDeleteInOrderAndEmptyTheOutbox() {
+        //given
+        Customer customer = customerService.createCustomer(Customer.builder()
+                .name("Alice")
+                .email("alice@gmail.com")
+                .address("US")
+                .build());
+
+        //when
+        customerService.partialUpdate(customer.getId(), null, Customer.builder().address("UK").build());
+        customerService.deleteCustomer(customer.getId(), null);
+
+        //then
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            List<CustomerOutboxMessage> messages = sink.messages().stream()
+                    .filter(message -> message.customerId().equals(customer.getId()))
+                    .toList();
+
+            assertThat(messages).extracting(CustomerOutboxMessage::type).containsExactly(
+                    CustomerChangeType.CREATED, CustomerChangeType.UPDATED, CustomerChangeType.DELETED);
+            assertThat(messages.get(1).payload()).contains("\"address\":\"UK\"");
+            assertThat(messages.get(1).customerVersion()).isEqualTo(1L);
+            assertThat(messages.get(2).payload()).isNull();
+        });
+        await().atMost(Duration.ofSeconds(5)).until(() -> customerOutboxRepository.count() == 0);
+        assertThat(meterRegistry.get(CustomerOutboxRelay.RELAYED_METRIC).counter().count()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void TestThat_relay_ShouldNotDeliverAnything_WhenTheWriteRollsBack() {
+        //given
+        customerService.createCustomer(Customer.builder().name("Alice").email("alice@gmail.com").address("US").build());
+        await().atMost(Duration.ofSeconds(5)).until(() -> sink.messages().size() == 1);
+
+        //when
+        assertThatThrownBy(() -> customerService.createCustomer(
+                Customer.builder().name("Bob").email("alice@gmail.com").address("UK").build()))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+
+        //then
+        await().during(Duration.ofMillis(300)).atMost(Duration.ofSeconds(1))
+                .until(() -> sink.messages().size() == 1 && customerOutboxRepository.count() == 0);
+    }
+
+    @Test
+    void TestThat_relay_ShouldRedeliverTheBatch_WhenTheSinkFails() {
+        //given
+        double failuresBefore = meterRegistry.get(CustomerOutboxRelay.FAILURES_METRIC).counter().count();
+        sink.failNext(2);
+
+        //when
+        customerService.createCustomer(Customer.builder().name("Alice").email("alice@gmail.com").address("US").build());
+
+        //then
+        await().atMost(Duration.ofSeconds(5)).until(() -> sink.messages().size() == 1);
+        assertThat(meterRegistry.get(CustomerOutboxRelay.FAILURES_METRIC).counter().count()).isEqualTo(failuresBefore + 2);
+    }
+}
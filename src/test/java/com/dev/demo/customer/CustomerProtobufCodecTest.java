@@ -0,0 +1,101 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.ApiErrorResponse;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerProtobufCodecTest {
+
+    @Test
+    void TestThat_writeCustomer_ShouldWriteTheProtobufWireFormat_AndLeaveNullFieldsOut() throws IOException {
+        //given
+        CustomerDto customer = CustomerDto.builder().id(1L).name("A").build();
+
+        //when
+        byte[] result = write(output -> CustomerProtobufCodec.writeCustomer(customer, output));
+
+        //then
+        assertThat(result).containsExactly(0x08, 0x01, 0x12, 0x01, 'A');
+    }
+
+    @Test
+    void TestThat_writeLookupResult_ShouldPackMissingIdsIntoOneField() throws IOException {
+        //given
+        CustomerLookupResult lookupResult = CustomerLookupResult.builder()
+                .content(List.of(CustomerDto.builder().id(1L).build()))
+                .missingIds(List.of(2L, 300L))
+                .build();
+
+        //when
+        byte[] result = write(output -> CustomerProtobufCodec.writeLookupResult(lookupResult, output));
+
+        //then
+        assertThat(result).containsExactly(0x0a, 0x02, 0x08, 0x01, 0x12, 0x03, 0x02, 0xac, 0x02);
+    }
+
+    @Test
+    void TestThat_writeErrorResponse_ShouldWriteStatusAndMessage() throws IOException {
+        //given
+        ApiErrorResponse errorResponse = ApiErrorResponse.builder().status(404).message("x").build();
+
+        //when
+        byte[] result = write(output -> CustomerProtobufCodec.writeErrorResponse(errorResponse, output));
+
+        //then
+        assertThat(result).containsExactly(0x08, 0x94, 0x03, 0x12, 0x01, 'x');
+    }
+
+    @Test
+    void TestThat_readCustomers_ShouldReadBackWhatWriteCustomersWrote() throws IOException {
+        //given
+        List<CustomerDto> customers = List.of(
+                CustomerDto.builder().id(1L).name("Alice").email("alice@gmail.com").address("US").build(),
+                CustomerDto.builder().id(2L).name("Zo\u00eb \uD83D\uDE00").build(),
+                new CustomerDto());
+
+        byte[] bytes = write(output -> CustomerProtobufCodec.writeCustomers(customers, output));
+
+        //when
+        List<CustomerDto> result = CustomerProtobufCodec.readCustomers(CodedInputStream.newInstance(bytes));
+
+        //then
+        assertThat(result).containsExactlyElementsOf(customers);
+    }
+
+    @Test
+    void TestThat_readCreateCustomerRequest_ShouldReadKnownFields_AndSkipUnknownOnes() throws IOException {
+        //given
+        byte[] bytes = write(output -> {
+            output.writeString(1, "Alice");
+            output.writeInt64(9, 42L);
+            output.writeString(2, "alice@gmail.com");
+            output.writeString(3, "US");
+        });
+
+        //when
+        CreateCustomerRequest result = CustomerProtobufCodec.readCreateCustomerRequest(CodedInputStream.newInstance(bytes));
+
+        //then
+        assertThat(result).isEqualTo(new CreateCustomerRequest("Alice", "alice@gmail.com", "US"));
+    }
+
+    private static byte[] write(Writer writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        writer.write(output);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(CodedOutputStream output) throws IOException;
+    }
+}
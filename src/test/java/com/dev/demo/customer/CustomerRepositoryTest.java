@@ -1,10 +1,18 @@
 package com.dev.demo.customer;
 
+import org.hibernate.engine.spi.SessionImplementor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -14,6 +22,9 @@ class CustomerRepositoryTest {
     @Autowired
     private CustomerRepository underTest;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private String existingEmail;
 
     @BeforeEach
@@ -56,4 +67,146 @@ class CustomerRepositoryTest {
         //then
         assertThat(result).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void TestThat_findDtosAfterId_ReturnsNextPageAfterGivenId() {
+        //given
+        Customer bob = underTest.save(Customer.builder().name("Bob").email("bob@gmail.com").address("US").build());
+        Customer carol = underTest.save(Customer.builder().name("Carol").email("carol@gmail.com").address("UK").build());
+        Customer dave = underTest.save(Customer.builder().name("Dave").email("dave@gmail.com").address("FR").build());
+
+        //when
+        List<CustomerDto> result = underTest.findDtosAfterId(bob.getId(), Limit.of(1));
+
+        //then
+        assertThat(result).extracting(CustomerDto::getId).containsExactly(carol.getId());
+        assertThat(underTest.findDtosAfterId(carol.getId(), Limit.of(10)))
+                .extracting(CustomerDto::getId)
+                .containsExactly(dave.getId());
+    }
+
+    @Test
+    void TestThat_findDtoById_ReturnsProjectedCustomer_WithoutManagingAnEntity() {
+        //given
+        Customer bob = underTest.save(Customer.builder().name("Bob").email("bob@gmail.com").address("US").build());
+        entityManager.flush();
+        entityManager.clear();
+
+        //when
+        Optional<CustomerDto> result = underTest.findDtoById(bob.getId());
+
+        //then
+        assertThat(result).contains(CustomerDto.builder()
+                .id(bob.getId())
+                .name("Bob")
+                .email("bob@gmail.com")
+                .address("US")
+                .version(0L)
+                .build());
+        assertThat(entityManager.getEntityManager()
+                .unwrap(SessionImplementor.class)
+                .getPersistenceContext()
+                .getNumberOfManagedEntities()).isZero();
+    }
+
+    @Test
+    void TestThat_findDtosByIdIn_ReturnsOnlyExistingCustomers() {
+        //given
+        Customer bob = underTest.save(Customer.builder().name("Bob").email("bob@gmail.com").address("US").build());
+        Long aliceId = underTest.findAll().stream()
+                .filter(customer -> customer.getEmail().equals(existingEmail))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+
+        //when
+        List<CustomerDto> result = underTest.findDtosByIdIn(List.of(aliceId, bob.getId(), bob.getId() + 1000));
+
+        //then
+        assertThat(result).extracting(CustomerDto::getId).containsExactlyInAnyOrder(aliceId, bob.getId());
+    }
+
+    @Test
+    void TestThat_updateNonNullFieldsById_OnlyOverwritesGivenFields() {
+        //given
+        Customer bob = underTest.save(Customer.builder().name("Bob").email("bob@gmail.com").address("US").build());
+        entityManager.flush();
+        entityManager.clear();
+
+        //when
+        int updatedRows = underTest.updateNonNullFieldsById(bob.getId(), 0L, null, null, "UK");
+
+        //then
+        assertThat(updatedRows).isEqualTo(1);
+        assertThat(underTest.findDtoById(bob.getId())).contains(CustomerDto.builder()
+                .id(bob.getId())
+                .name("Bob")
+                .email("bob@gmail.com")
+                .address("UK")
+                .version(1L)
+                .build());
+    }
+
+    @Test
+    void TestThat_updateByIdAndDeleteCustomerById_ReturnZero_WhenCustomerDoesNotExist() {
+        //given
+        long missingId = -1L;
+
+        //when
+        int updatedRows = underTest.updateById(missingId, null, "Bob", "bob@gmail.com", "US");
+        int deletedRows = underTest.deleteCustomerById(missingId, null);
+
+        //then
+        assertThat(updatedRows).isZero();
+        assertThat(deletedRows).isZero();
+    }
+
+    @Test
+    void TestThat_updateById_ReturnsZero_WhenExpectedVersionIsStale() {
+        //given
+        Customer bob = underTest.save(Customer.builder().name("Bob").email("bob@gmail.com").address("US").build());
+        entityManager.flush();
+        entityManager.clear();
+
+        //when
+        int updatedRows = underTest.updateById(bob.getId(), bob.getVersion() + 1, "Bob", "bob@gmail.com", "UK");
+
+        //then
+        assertThat(updatedRows).isZero();
+        assertThat(underTest.findDtoById(bob.getId())).get()
+                .extracting(CustomerDto::getAddress)
+                .isEqualTo("US");
+    }
+
+    @Test
+    void TestThat_searchDtos_RanksEmailPrefixMatchesFirst() {
+        //given
+        Customer aliceInName = underTest.save(Customer.builder().name("Mary Alice").email("mary@gmail.com").address("US").build());
+        Customer aliceInAddress = underTest.save(Customer.builder().name("Bob").email("bob@gmail.com").address("1 Alice St").build());
+        underTest.save(Customer.builder().name("Carol").email("carol@gmail.com").address("UK").build());
+
+        //when
+        Slice<CustomerDto> result = underTest.searchDtos("%alice%", "alice%", PageRequest.of(0, 2));
+
+        //then
+        assertThat(result.getContent())
+                .extracting(CustomerDto::getEmail)
+                .containsExactly(existingEmail, aliceInName.getEmail());
+        assertThat(result.hasNext()).isTrue();
+        assertThat(underTest.searchDtos("%alice%", "alice%", PageRequest.of(1, 2)).getContent())
+                .extracting(CustomerDto::getId)
+                .containsExactly(aliceInAddress.getId());
+    }
+
+    @Test
+    void TestThat_searchDtos_TreatsLikeWildcardsInTheQueryLiterally() {
+        //given
+        String query = CustomerSearch.escapeLike("100%");
+
+        //when
+        Slice<CustomerDto> result = underTest.searchDtos("%" + query + "%", query + "%", PageRequest.of(0, 10));
+
+        //then
+        assertThat(result.getContent()).isEmpty();
+    }
+}
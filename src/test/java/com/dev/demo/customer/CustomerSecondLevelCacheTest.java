@@ -0,0 +1,134 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.config.CacheConfig;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The Spring customer cache is cleared before each read, so only Hibernate's caches can
+// keep the repeated reads away from the database
+@SpringBootTest
+@AutoConfigureMockMvc
+class CustomerSecondLevelCacheTest {
+
+    private static final String CUSTOMER_BASED_URL = "/api/v1/customers";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        customer = customerRepository.saveAndFlush(Customer.builder()
+                .name("Alice")
+                .email("alice@gmail.com")
+                .address("US")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldRunNoSql_WhenRepeated() throws Exception {
+        //given
+        getCustomerById();
+        statistics.clear();
+
+        //when
+        getCustomerById();
+
+        //then
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldHitTheDatabaseAgain_WhenTheCustomerChanged() throws Exception {
+        //given
+        getCustomerById();
+        customerRepository.findById(customer.getId()).ifPresent(found -> {
+            found.setAddress("UK");
+            customerRepository.saveAndFlush(found);
+        });
+        statistics.clear();
+
+        //when
+        //then
+        evictSpringCache();
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/" + customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.address").value("UK"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void TestThat_findById_ShouldBeServedFromTheSecondLevelCache_WhenRepeated() {
+        //given
+        customerRepository.findById(customer.getId());
+        statistics.clear();
+
+        //when
+        customerRepository.findById(customer.getId());
+
+        //then
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void TestThat_existsByEmail_ShouldRunNoSql_WhenRepeated() {
+        //given
+        customerRepository.existsByEmail(customer.getEmail());
+        statistics.clear();
+
+        //when
+        boolean exists = customerRepository.existsByEmail(customer.getEmail());
+
+        //then
+        assertThat(exists).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private void getCustomerById() throws Exception {
+        evictSpringCache();
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/" + customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(customer.getEmail()));
+    }
+
+    private void evictSpringCache() {
+        Objects.requireNonNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE)).clear();
+    }
+}
@@ -0,0 +1,142 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.TestDataUtil;
+import com.dev.demo.config.CacheConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class CustomerServiceCachingTest {
+
+    @MockitoBean
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerService underTest;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        Objects.requireNonNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE)).clear();
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldHitTheDatabaseOnce_WhenCalledRepeatedly() {
+        //given
+        CustomerDto customer = TestDataUtil.testCustomerDto();
+
+        when(customerRepository.findDtoById(customer.getId())).thenReturn(Optional.of(customer));
+
+        //when
+        underTest.getCustomerById(customer.getId());
+        CustomerDto result = underTest.getCustomerById(customer.getId());
+
+        //then
+        assertThat(result.getEmail()).isEqualTo(customer.getEmail());
+        verify(customerRepository, times(1)).findDtoById(customer.getId());
+    }
+
+    @Test
+    void TestThat_fullUpdateCustomer_ShouldInvalidateCachedCustomer() {
+        //given
+        Customer customer = TestDataUtil.testCustomer();
+        Customer customerToUpdate = TestDataUtil.testUpdatedCustomer();
+
+        when(customerRepository.findDtoById(customer.getId())).thenReturn(Optional.of(TestDataUtil.testCustomerDto()));
+        when(customerRepository.updateById(customer.getId(), 0L, customerToUpdate.getName(), customerToUpdate.getEmail(),
+                customerToUpdate.getAddress())).thenReturn(1);
+
+        underTest.getCustomerById(customer.getId());
+
+        //when
+        underTest.fullUpdateCustomer(customer.getId(), 0L, customerToUpdate);
+        underTest.getCustomerById(customer.getId());
+
+        //then
+        verify(customerRepository, times(2)).findDtoById(customer.getId());
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldNotCacheTheReadRow_WhenABulkUpdateClearsTheCacheWhileItIsRead() {
+        //given
+        CustomerDto customer = TestDataUtil.testCustomerDto();
+        Cache customersCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE));
+
+        // The bulk update commits and clears the cache after the row was read, but before it is cached
+        when(customerRepository.findDtoById(customer.getId())).thenAnswer(invocation -> {
+            customersCache.clear();
+            return Optional.of(customer);
+        });
+
+        //when
+        CustomerDto result = underTest.getCustomerById(customer.getId());
+
+        //then
+        assertThat(result.getEmail()).isEqualTo(customer.getEmail());
+        assertThat(customersCache.get(customer.getId())).isNull();
+    }
+
+    @Test
+    void TestThat_deleteCustomer_ShouldInvalidateCachedCustomer() {
+        //given
+        Customer customer = TestDataUtil.testCustomer();
+
+        when(customerRepository.findDtoById(customer.getId())).thenReturn(Optional.of(TestDataUtil.testCustomerDto()));
+        when(customerRepository.deleteCustomerById(customer.getId(), null)).thenReturn(1);
+
+        underTest.getCustomerById(customer.getId());
+
+        //when
+        underTest.deleteCustomer(customer.getId(), null);
+
+        //then
+        assertThat(Objects.requireNonNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE)).get(customer.getId()))
+                .isNull();
+    }
+
+    @Test
+    void TestThat_customersCache_ShouldExposeHitAndMissMetrics() {
+        //given
+        CustomerDto customer = TestDataUtil.testCustomerDto();
+
+        when(customerRepository.findDtoById(customer.getId())).thenReturn(Optional.of(customer));
+
+        double hitsBefore = cacheGets("hit");
+        double missesBefore = cacheGets("miss");
+
+        //when
+        underTest.getCustomerById(customer.getId());
+        underTest.getCustomerById(customer.getId());
+
+        //then
+        assertThat(cacheGets("hit") - hitsBefore).isEqualTo(1);
+        assertThat(cacheGets("miss") - missesBefore).isEqualTo(1);
+        assertThat(meterRegistry.find("cache.evictions").tag("cache", CacheConfig.CUSTOMERS_CACHE).functionCounter())
+                .isNotNull();
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", CacheConfig.CUSTOMERS_CACHE)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
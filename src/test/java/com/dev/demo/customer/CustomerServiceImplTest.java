@@ -1,7 +1,12 @@
 package com.dev.demo.customer;
 
+import com.dev.demo.TestDataUtil;
 import com.dev.demo.exception.CustomerNotFoundException;
+import com.dev.demo.exception.CustomerVersionMismatchException;
 import com.dev.demo.exception.EmailAlreadyExistsException;
+import com.dev.demo.exception.InvalidSearchQueryException;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,12 +15,25 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,12 +45,28 @@ class CustomerServiceImplTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CustomerSearch customerSearch;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Captor
     private ArgumentCaptor<Customer> customerArgumentCaptor;
 
+    private EmailFingerprintIndex emailIndex;
+
     @BeforeEach
     void setUp() {
-        underTest = new CustomerServiceImpl(customerRepository);
+        emailIndex = new EmailFingerprintIndex();
+        underTest = new CustomerServiceImpl(customerRepository, entityManager, customerSearch, emailIndex,
+                new CustomerMapper(), eventPublisher, transactionManager);
     }
 
     @Test
@@ -41,7 +75,76 @@ class CustomerServiceImplTest {
         underTest.getAllCustomers();
 
         //then
-        verify(customerRepository).findAll();
+        verify(customerRepository).findAllDtos();
+        verify(customerRepository, never()).findAll();
+    }
+
+    @Test
+    void TestThat_exportCustomers_ShouldPassEachCustomerToConsumer() {
+        //given
+        CustomerDto customerA = TestDataUtil.testCustomerDto();
+        CustomerDto customerB = TestDataUtil.testCustomerDtoB();
+
+        when(customerRepository.streamAllDtos()).thenReturn(Stream.of(customerA, customerB));
+
+        List<CustomerDto> exportedCustomers = new ArrayList<>();
+
+        //when
+        underTest.exportCustomers(exportedCustomers::add);
+
+        //then
+        assertThat(exportedCustomers).containsExactly(customerA, customerB);
+    }
+
+    @Test
+    void TestThat_getCustomersAfter_ShouldSeekPastGivenId() {
+        //given
+        CustomerDto customer = TestDataUtil.testCustomerDtoB();
+
+        when(customerRepository.findDtosAfterId(1L, Limit.of(10)))
+                .thenReturn(List.of(customer));
+
+        //when
+        List<CustomerDto> result = underTest.getCustomersAfter(1L, 10);
+
+        //then
+        assertThat(result).containsExactly(customer);
+    }
+
+    @Test
+    void TestThat_getCustomersAfter_ShouldStartFromTheBeginning_WhenAfterIdIsNull() {
+        //when
+        underTest.getCustomersAfter(null, 10);
+
+        //then
+        verify(customerRepository).findDtosAfterId(0L, Limit.of(10));
+    }
+
+    @Test
+    void TestThat_searchCustomers_ShouldReturnNextPage_WhenMoreMatchesExist() {
+        //given
+        CustomerDto customer = TestDataUtil.testCustomerDto();
+
+        when(customerSearch.search("alice", PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(customer), PageRequest.of(0, 1), true));
+
+        //when
+        CustomerSearchPage result = underTest.searchCustomers("  alice ", 0, 1);
+
+        //then
+        assertThat(result.getContent()).containsExactly(customer);
+        assertThat(result.getNextPage()).isEqualTo(1);
+    }
+
+    @Test
+    void TestThat_searchCustomers_ShouldThrowInvalidSearchQueryException_WhenQueryIsTooShort() {
+        //when
+        //then
+        assertThatThrownBy(() -> underTest.searchCustomers(" al ", 0, 20))
+                .isInstanceOf(InvalidSearchQueryException.class)
+                .hasMessageContaining("at least 3 characters");
+
+        verifyNoInteractions(customerSearch);
     }
 
     @Test
@@ -53,17 +156,22 @@ class CustomerServiceImplTest {
                 .address("US")
                 .build();
 
+        when(customerRepository.saveAndFlush(customer)).thenReturn(customer);
+
         //when
         underTest.createCustomer(customer);
 
         //then
-        verify(customerRepository).save(customerArgumentCaptor.capture());
+        verify(customerRepository).saveAndFlush(customerArgumentCaptor.capture());
 
         Customer capturedCustomer = customerArgumentCaptor.getValue();
 
         assertThat(capturedCustomer.getName()).isEqualTo(customer.getName());
         assertThat(capturedCustomer.getEmail()).isEqualTo(customer.getEmail());
         assertThat(capturedCustomer.getAddress()).isEqualTo(customer.getAddress());
+
+        verify(customerRepository, never()).existsByEmail(any());
+        verify(eventPublisher).publishEvent(any(CustomerChangedEvent.class));
     }
 
     @Test
@@ -77,7 +185,7 @@ class CustomerServiceImplTest {
                 .address("US")
                 .build();
 
-        when(customerRepository.existsByEmail(anyString())).thenReturn(true);
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenThrow(emailUniqueIndexViolation());
 
         //when
         //then
@@ -86,22 +194,243 @@ class CustomerServiceImplTest {
                 .hasMessageContaining("Email " + email + " already exists");
     }
 
+    @Test
+    void TestThat_createCustomers_ShouldCreateNewCustomersAndReportConflicts() {
+        //given
+        Customer alice = TestDataUtil.testCustomer();
+        Customer bob = TestDataUtil.testCustomerB();
+        Customer bobAgain = TestDataUtil.testCustomerB();
+        Customer carol = Customer.builder().name("Carol").email("carol@gmail.com").address("UK").build();
+
+        when(customerRepository.findExistingEmails(anyList())).thenReturn(List.of(alice.getEmail()));
+
+        //when
+        List<BatchItemResult> results = underTest.createCustomers(List.of(alice, bob, bobAgain, carol));
+
+        //then
+        verify(customerRepository, times(1)).findExistingEmails(anyList());
+        verify(customerRepository).saveAll(List.of(bob, carol));
+        verify(customerRepository).flush();
+        verify(entityManager).clear();
+        verify(transactionManager).commit(any());
+
+        assertThat(results).extracting(BatchItemResult::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(
+                BatchItemStatus.CONFLICT, BatchItemStatus.CREATED, BatchItemStatus.CONFLICT, BatchItemStatus.CREATED);
+        assertThat(results.get(0).getMessage()).isEqualTo("Email " + alice.getEmail() + " already exists");
+        assertThat(results.get(1).getCustomer()).isSameAs(bob);
+    }
+
+    @Test
+    void TestThat_createCustomers_ShouldCreateEveryCustomer_WhenSeveralHaveNoEmail() {
+        //given
+        Customer alice = Customer.builder().name("Alice").address("US").build();
+        Customer bob = Customer.builder().name("Bob").address("UK").build();
+
+        //when
+        List<BatchItemResult> results = underTest.createCustomers(List.of(alice, bob));
+
+        //then
+        verify(customerRepository, never()).findExistingEmails(anyList());
+        verify(customerRepository).saveAll(List.of(alice, bob));
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(
+                BatchItemStatus.CREATED, BatchItemStatus.CREATED);
+    }
+
+    @Test
+    void TestThat_createCustomers_ShouldRetryTheChunkItemByItem_WhenAnotherWriterTookAnEmailAfterTheLookup() {
+        //given
+        Customer alice = TestDataUtil.testCustomer();
+        Customer bob = TestDataUtil.testCustomerB();
+
+        when(customerRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Customer> customers = invocation.getArgument(0);
+            if (customers.contains(alice))
+                throw emailUniqueIndexViolation();
+            return customers;
+        });
+
+        //when
+        List<BatchItemResult> results = underTest.createCustomers(List.of(alice, bob));
+
+        //then
+        verify(customerRepository).saveAll(List.of(bob));
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager).commit(any());
+        verify(eventPublisher, times(1)).publishEvent(any(CustomerChangedEvent.class));
+
+        assertThat(results).extracting(BatchItemResult::getIndex).containsExactly(0, 1);
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(
+                BatchItemStatus.CONFLICT, BatchItemStatus.CREATED);
+        assertThat(results.get(0).getMessage()).isEqualTo("Email " + alice.getEmail() + " already exists");
+        assertThat(results.get(1).getCustomer()).isSameAs(bob);
+    }
+
+    @Test
+    void TestThat_createCustomers_ShouldOnlyLookUpEmailsTheIndexCannotRuleOut_WhenIndexIsReady() {
+        //given
+        Customer alice = TestDataUtil.testCustomer();
+        Customer bob = TestDataUtil.testCustomerB();
+
+        emailIndex.add(alice.getEmail());
+        emailIndex.markReady();
+
+        when(customerRepository.findExistingEmails(anyList())).thenReturn(List.of(alice.getEmail()));
+
+        //when
+        List<BatchItemResult> results = underTest.createCustomers(List.of(alice, bob));
+
+        //then
+        verify(customerRepository).findExistingEmails(List.of(alice.getEmail()));
+        verify(customerRepository).saveAll(List.of(bob));
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(
+                BatchItemStatus.CONFLICT, BatchItemStatus.CREATED);
+        assertThat(emailIndex.mightContain(bob.getEmail())).isTrue();
+    }
+
+    @Test
+    void TestThat_createCustomers_ShouldReportConflictPerItem_WhenIndexMissesAnEmailWrittenByAnotherInstance() {
+        //given
+        emailIndex.markReady();
+        Customer alice = TestDataUtil.testCustomer();
+        Customer bob = TestDataUtil.testCustomerB();
+
+        when(customerRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Customer> customers = invocation.getArgument(0);
+            if (customers.contains(alice))
+                throw emailUniqueIndexViolation();
+            return customers;
+        });
+
+        //when
+        List<BatchItemResult> results = underTest.createCustomers(List.of(alice, bob));
+
+        //then
+        verify(customerRepository, never()).findExistingEmails(anyList());
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(
+                BatchItemStatus.CONFLICT, BatchItemStatus.CREATED);
+    }
+
+    @Test
+    void TestThat_createCustomers_ShouldSkipTheEmailLookup_WhenIndexRulesOutEveryEmail() {
+        //given
+        emailIndex.markReady();
+        Customer bob = TestDataUtil.testCustomerB();
+
+        //when
+        underTest.createCustomers(List.of(bob));
+
+        //then
+        verify(customerRepository, never()).findExistingEmails(anyList());
+        verify(customerRepository).saveAll(List.of(bob));
+    }
+
+    @Test
+    void TestThat_partialUpdateCustomers_ShouldApplyChangesAndReportEachRejectedItem() {
+        //given
+        Customer alice = TestDataUtil.testCustomer();
+        alice.setVersion(3L);
+        Customer bob = TestDataUtil.testCustomerB();
+        bob.setVersion(0L);
+
+        List<Customer> customersToUpdate = List.of(
+                Customer.builder().id(alice.getId()).address("UK").build(),
+                Customer.builder().id(99L).address("UK").build(),
+                Customer.builder().id(bob.getId()).version(7L).address("UK").build(),
+                Customer.builder().id(bob.getId()).email("taken@gmail.com").build()
+        );
+
+        when(customerRepository.findAllById(anyList())).thenReturn(List.of(alice, bob));
+        when(customerRepository.findExistingEmails(List.of("taken@gmail.com"))).thenReturn(List.of("taken@gmail.com"));
+
+        //when
+        List<BatchItemResult> results = underTest.partialUpdateCustomers(customersToUpdate);
+
+        //then
+        verify(customerRepository, times(1)).findAllById(anyList());
+        verify(customerRepository, times(1)).findExistingEmails(anyList());
+        verify(customerRepository).flush();
+        verify(transactionManager).commit(any());
+
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(
+                BatchItemStatus.UPDATED, BatchItemStatus.NOT_FOUND, BatchItemStatus.VERSION_MISMATCH, BatchItemStatus.CONFLICT);
+        assertThat(results.get(0).getCustomer()).isSameAs(alice);
+        assertThat(alice.getAddress()).isEqualTo("UK");
+        assertThat(alice.getName()).isEqualTo(TestDataUtil.testCustomer().getName());
+        assertThat(bob.getAddress()).isEqualTo(TestDataUtil.testCustomerB().getAddress());
+        assertThat(bob.getEmail()).isEqualTo(TestDataUtil.testCustomerB().getEmail());
+    }
+
+    @Test
+    void TestThat_partialUpdateCustomers_ShouldReportConflict_WhenTwoItemsClaimTheSameNewEmail() {
+        //given
+        Customer alice = TestDataUtil.testCustomer();
+        Customer bob = TestDataUtil.testCustomerB();
+
+        when(customerRepository.findAllById(anyList())).thenReturn(List.of(alice, bob));
+
+        //when
+        List<BatchItemResult> results = underTest.partialUpdateCustomers(List.of(
+                Customer.builder().id(alice.getId()).email("shared@gmail.com").build(),
+                Customer.builder().id(bob.getId()).email("shared@gmail.com").build()
+        ));
+
+        //then
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(
+                BatchItemStatus.UPDATED, BatchItemStatus.CONFLICT);
+        assertThat(bob.getEmail()).isEqualTo(TestDataUtil.testCustomerB().getEmail());
+    }
+
+    @Test
+    void TestThat_partialUpdateCustomers_ShouldRetryItemByItemAndReportVersionMismatch_WhenARowChangesConcurrently() {
+        //given
+        Customer alice = TestDataUtil.testCustomer();
+        alice.setVersion(3L);
+        Customer bob = TestDataUtil.testCustomerB();
+        bob.setVersion(0L);
+
+        when(customerRepository.findAllById(anyList())).thenReturn(List.of(alice, bob));
+        when(customerRepository.findById(alice.getId())).thenReturn(Optional.of(alice));
+        when(customerRepository.findById(bob.getId())).thenReturn(Optional.of(bob));
+        doThrow(new ObjectOptimisticLockingFailureException(Customer.class, alice.getId()))
+                .doThrow(new ObjectOptimisticLockingFailureException(Customer.class, alice.getId()))
+                .doNothing()
+                .when(customerRepository).flush();
+
+        //when
+        List<BatchItemResult> results = underTest.partialUpdateCustomers(List.of(
+                Customer.builder().id(alice.getId()).address("UK").build(),
+                Customer.builder().id(bob.getId()).address("UK").build()
+        ));
+
+        //then
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager).commit(any());
+        verify(eventPublisher, times(1)).publishEvent(any(CustomerChangedEvent.class));
+
+        assertThat(results).extracting(BatchItemResult::getIndex).containsExactly(0, 1);
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(
+                BatchItemStatus.VERSION_MISMATCH, BatchItemStatus.UPDATED);
+        assertThat(results.get(0).getMessage()).contains("changed by another request");
+        assertThat(results.get(1).getCustomer()).isSameAs(bob);
+    }
+
     @Test
     void TestThat_getCustomerById_ShouldReturnFoundCustomer() {
         //given
         long id = 1L;
 
-        Customer customer = Customer.builder()
+        CustomerDto customer = CustomerDto.builder()
                 .id(id)
                 .name("Alice")
                 .email("alice@gmail.com")
                 .address("US")
                 .build();
 
-        when(customerRepository.findById(id)).thenReturn(Optional.of(customer));
+        when(customerRepository.findDtoById(id)).thenReturn(Optional.of(customer));
 
         //when
-        Customer result = underTest.getCustomerById(id);
+        CustomerDto result = underTest.getCustomerById(id);
 
         //then
         assertThat(result).isNotNull();
@@ -115,7 +444,7 @@ class CustomerServiceImplTest {
         //given
         long id = 1L;
 
-        when(customerRepository.findById(id)).thenReturn(Optional.empty());
+        when(customerRepository.findDtoById(id)).thenReturn(Optional.empty());
 
         //when
         //then
@@ -123,20 +452,41 @@ class CustomerServiceImplTest {
                 .isInstanceOf(CustomerNotFoundException.class)
                 .hasMessageContaining("Customer not found with id " + id);
 
-        verify(customerRepository, never()).save(any());
+        verify(customerRepository, never()).saveAndFlush(any());
     }
 
     @Test
-    void TestThat_fullUpdateCustomer_ShouldFullUpdateCustomer() {
+    void TestThat_getCustomersByIds_ShouldReturnFoundCustomersInRequestOrderAndReportMissingIds() {
         //given
-        long id = 1L;
+        CustomerDto customerA = CustomerDto.builder().id(1L).name("Alice").email("alice@gmail.com").address("US").build();
+        CustomerDto customerB = CustomerDto.builder().id(2L).name("Bob").email("bob@gmail.com").address("UK").build();
 
-        Customer existingCustomer = Customer.builder()
-                .id(id)
-                .name("Alice")
-                .email("alice@gmail.com")
-                .address("US")
-                .build();
+        when(customerRepository.findDtosByIdIn(anyCollection())).thenReturn(List.of(customerA, customerB));
+
+        //when
+        CustomerLookupResult result = underTest.getCustomersByIds(List.of(2L, 9L, 1L, 2L));
+
+        //then
+        assertThat(result.getContent()).containsExactly(customerB, customerA);
+        assertThat(result.getMissingIds()).containsExactly(9L);
+        verify(customerRepository, times(1)).findDtosByIdIn(Set.of(1L, 2L, 9L));
+    }
+
+    @Test
+    void TestThat_getCustomersByIds_ShouldNotQuery_WhenNoIdsAreGiven() {
+        //when
+        CustomerLookupResult result = underTest.getCustomersByIds(List.of());
+
+        //then
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.getMissingIds()).isEmpty();
+        verify(customerRepository, never()).findDtosByIdIn(anyCollection());
+    }
+
+    @Test
+    void TestThat_fullUpdateCustomer_ShouldFullUpdateCustomerAndReadBackTheWrittenVersion_WhenNoVersionIsExpected() {
+        //given
+        long id = 1L;
 
         String newName = "Alice Trump";
         String newEmail = "alicetrump@gmail.com";
@@ -148,22 +498,29 @@ class CustomerServiceImplTest {
                 .address(newAddress)
                 .build();
 
-        when(customerRepository.findById(id)).thenReturn(Optional.of(existingCustomer));
+        CustomerDto updatedCustomer = CustomerDto.builder()
+                .id(id)
+                .name(newName)
+                .email(newEmail)
+                .address(newAddress)
+                .version(4L)
+                .build();
 
-        when(customerRepository.existsByEmail(anyString())).thenReturn(false);
+        when(customerRepository.updateById(id, null, newName, newEmail, newAddress)).thenReturn(1);
+        when(customerRepository.findDtoById(id)).thenReturn(Optional.of(updatedCustomer));
 
         //when
-        underTest.fullUpdateCustomer(id, customerToUpdate);
+        CustomerDto result = underTest.fullUpdateCustomer(id, null, customerToUpdate);
 
         //then
-        verify(customerRepository).save(customerArgumentCaptor.capture());
-
-        Customer capturedCustomer = customerArgumentCaptor.getValue();
-
-        assertThat(capturedCustomer.getId()).isEqualTo(id);
-        assertThat(capturedCustomer.getName()).isEqualTo(newName);
-        assertThat(capturedCustomer.getEmail()).isEqualTo(newEmail);
-        assertThat(capturedCustomer.getAddress()).isEqualTo(newAddress);
+        assertThat(result.getId()).isEqualTo(id);
+        assertThat(result.getName()).isEqualTo(newName);
+        assertThat(result.getEmail()).isEqualTo(newEmail);
+        assertThat(result.getAddress()).isEqualTo(newAddress);
+        assertThat(result.getVersion()).isEqualTo(4L);
+
+        verify(customerRepository, never()).findById(any());
+        verify(customerRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -181,12 +538,12 @@ class CustomerServiceImplTest {
                 .address(newAddress)
                 .build();
 
-        when(customerRepository.findById(id)).thenReturn(Optional.empty());
+        when(customerRepository.updateById(id, null, newName, newEmail, newAddress)).thenReturn(0);
 
         //when
 
         //then
-        assertThatThrownBy(() -> underTest.fullUpdateCustomer(id, customerToUpdate))
+        assertThatThrownBy(() -> underTest.fullUpdateCustomer(id, null, customerToUpdate))
                 .isInstanceOf(CustomerNotFoundException.class)
                 .hasMessageContaining("Customer not found with id " + id);
     }
@@ -196,13 +553,6 @@ class CustomerServiceImplTest {
         //given
         long id = 1L;
 
-        Customer existingCustomer = Customer.builder()
-                .id(id)
-                .name("Alice")
-                .email("alice@gmail.com")
-                .address("US")
-                .build();
-
         String newName = "Alice Trump";
         String newEmail = "alicetrump@gmail.com";
         String newAddress = "UK";
@@ -213,201 +563,193 @@ class CustomerServiceImplTest {
                 .address(newAddress)
                 .build();
 
-        when(customerRepository.findById(id)).thenReturn(Optional.of(existingCustomer));
-
-        when(customerRepository.existsByEmail(anyString())).thenReturn(true);
+        when(customerRepository.updateById(id, null, newName, newEmail, newAddress)).thenThrow(emailUniqueIndexViolation());
 
         //when
 
         //then
-        assertThatThrownBy(() -> underTest.fullUpdateCustomer(id, customerToUpdate))
+        assertThatThrownBy(() -> underTest.fullUpdateCustomer(id, null, customerToUpdate))
                 .isInstanceOf(EmailAlreadyExistsException.class)
                 .hasMessageContaining("Email " + newEmail + " already exists");
     }
 
     @Test
-    void TestThat_partialUpdate_ShouldFullUpdateCustomer() {
+    void TestThat_partialUpdate_ShouldOnlyPassNonNullFieldsAndReturnUpdatedCustomer() {
         //given
         long id = 1L;
 
-        Customer existingCustomer = Customer.builder()
-                .id(id)
-                .name("Alice")
-                .email("alice@gmail.com")
-                .address("US")
-                .build();
-
         String newName = "Alice Trump";
-        String newEmail = "alicetrump@gmail.com";
-        String newAddress = "UK";
 
         Customer customerToUpdate = Customer.builder()
                 .name(newName)
-                .email(newEmail)
-                .address(newAddress)
                 .build();
 
-        when(customerRepository.findById(id)).thenReturn(Optional.of(existingCustomer));
+        CustomerDto updatedCustomer = CustomerDto.builder()
+                .id(id)
+                .name(newName)
+                .email("alice@gmail.com")
+                .address("US")
+                .build();
 
-        when(customerRepository.existsByEmail(anyString())).thenReturn(false);
+        when(customerRepository.updateNonNullFieldsById(id, null, newName, null, null)).thenReturn(1);
+        when(customerRepository.findDtoById(id)).thenReturn(Optional.of(updatedCustomer));
 
         //when
-        underTest.partialUpdate(id, customerToUpdate);
+        CustomerDto result = underTest.partialUpdate(id, null, customerToUpdate);
 
         //then
-        verify(customerRepository).save(customerArgumentCaptor.capture());
-
-        Customer capturedCustomer = customerArgumentCaptor.getValue();
+        assertThat(result).isEqualTo(updatedCustomer);
 
-        assertThat(capturedCustomer.getId()).isEqualTo(id);
-        assertThat(capturedCustomer.getName()).isEqualTo(newName);
-        assertThat(capturedCustomer.getEmail()).isEqualTo(newEmail);
-        assertThat(capturedCustomer.getAddress()).isEqualTo(newAddress);
+        verify(customerRepository, never()).findById(any());
+        verify(customerRepository, never()).saveAndFlush(any());
     }
 
     @Test
-    void TestThat_partialUpdate_ShouldOnlyUpdateCustomerName() {
+    void TestThat_partialUpdate_ShouldThrowCustomerNotFoundException_WhenCustomerIdDoesNotExist() {
         //given
         long id = 1L;
 
-        Customer existingCustomer = Customer.builder()
-                .id(id)
-                .name("Alice")
-                .email("alice@gmail.com")
-                .address("US")
-                .build();
-
-        String newName = "Alice Trump";
-        String newEmail = "alicetrump@gmail.com";
-        String newAddress = "UK";
-
         Customer customerToUpdate = Customer.builder()
-                .name(newName)
+                .email("alicetrump@gmail.com")
                 .build();
 
-        when(customerRepository.findById(id)).thenReturn(Optional.of(existingCustomer));
+        when(customerRepository.updateNonNullFieldsById(id, null, null, "alicetrump@gmail.com", null)).thenReturn(0);
 
         //when
-        underTest.partialUpdate(id, customerToUpdate);
 
         //then
-        verify(customerRepository).save(customerArgumentCaptor.capture());
-
-        Customer capturedCustomer = customerArgumentCaptor.getValue();
+        assertThatThrownBy(() -> underTest.partialUpdate(id, null, customerToUpdate))
+                .isInstanceOf(CustomerNotFoundException.class)
+                .hasMessageContaining("Customer not found with id " + id);
 
-        assertThat(capturedCustomer.getId()).isEqualTo(id);
-        assertThat(capturedCustomer.getName()).isEqualTo(newName);
-        assertThat(capturedCustomer.getEmail()).isEqualTo(existingCustomer.getEmail());
-        assertThat(capturedCustomer.getAddress()).isEqualTo(existingCustomer.getAddress());
+        verify(customerRepository, never()).findDtoById(any());
     }
 
     @Test
-    void TestThat_partialUpdate_ShouldOnlyUpdateCustomerEmail() {
+    void TestThat_partialUpdateCustomer_EmailAlreadyExistsException_WhenNewEmailAlreadyExists() {
         //given
         long id = 1L;
 
-        Customer existingCustomer = Customer.builder()
-                .id(id)
-                .name("Alice")
-                .email("alice@gmail.com")
-                .address("US")
-                .build();
-
         String newName = "Alice Trump";
         String newEmail = "alicetrump@gmail.com";
         String newAddress = "UK";
 
         Customer customerToUpdate = Customer.builder()
+                .name(newName)
                 .email(newEmail)
+                .address(newAddress)
                 .build();
 
-        when(customerRepository.findById(id)).thenReturn(Optional.of(existingCustomer));
+        when(customerRepository.updateNonNullFieldsById(id, null, newName, newEmail, newAddress))
+                .thenThrow(emailUniqueIndexViolation());
 
-        when(customerRepository.existsByEmail(anyString())).thenReturn(false);
+        //when
+
+        //then
+        assertThatThrownBy(() -> underTest.partialUpdate(id, null, customerToUpdate))
+                .isInstanceOf(EmailAlreadyExistsException.class)
+                .hasMessageContaining("Email " + newEmail + " already exists");
+    }
+
+    @Test
+    void TestThat_deleteCustomer_ShouldDeleteCustomerInASingleStatement() {
+        //given
+        long id = 1L;
+
+        when(customerRepository.deleteCustomerById(id, null)).thenReturn(1);
 
         //when
-        underTest.partialUpdate(id, customerToUpdate);
+        underTest.deleteCustomer(id, null);
 
         //then
-        verify(customerRepository).save(customerArgumentCaptor.capture());
+        verify(customerRepository).deleteCustomerById(id, null);
+        verify(customerRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(new CustomerChangedEvent(CustomerChangeType.DELETED, id, null));
+    }
 
-        Customer capturedCustomer = customerArgumentCaptor.getValue();
+    @Test
+    void TestThat_deleteCustomer_ShouldNotPublishAChange_WhenNothingWasDeleted() {
+        //given
+        long id = 1L;
 
-        assertThat(capturedCustomer.getId()).isEqualTo(id);
-        assertThat(capturedCustomer.getName()).isEqualTo(existingCustomer.getName());
-        assertThat(capturedCustomer.getEmail()).isEqualTo(newEmail);
-        assertThat(capturedCustomer.getAddress()).isEqualTo(existingCustomer.getAddress());
+        when(customerRepository.deleteCustomerById(id, null)).thenReturn(0);
+
+        //when
+        //then
+        assertThatThrownBy(() -> underTest.deleteCustomer(id, null))
+                .isInstanceOf(CustomerNotFoundException.class);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    void TestThat_partialUpdateCustomer_EmailAlreadyExistsException_WhenNewEmailAlreadyExists() {
+    void TestThat_deleteCustomer_ShouldThrowCustomerNotFoundException_WhenCustomerIdDoesNotExist() {
         //given
         long id = 1L;
 
-        Customer existingCustomer = Customer.builder()
-                .id(id)
-                .name("Alice")
-                .email("alice@gmail.com")
-                .address("US")
-                .build();
+        when(customerRepository.deleteCustomerById(id, null)).thenReturn(0);
 
-        String newName = "Alice Trump";
-        String newEmail = "alicetrump@gmail.com";
-        String newAddress = "UK";
+        //when
 
-        Customer customerToUpdate = Customer.builder()
-                .name(newName)
-                .email(newEmail)
-                .address(newAddress)
-                .build();
+        //then
+        assertThatThrownBy(() -> underTest.deleteCustomer(id, null))
+                .isInstanceOf(CustomerNotFoundException.class)
+                .hasMessageContaining("Customer not found with id " + id);
+    }
+
+    @Test
+    void TestThat_fullUpdateCustomer_ShouldReturnNextVersion_WhenExpectedVersionMatches() {
+        //given
+        long id = 1L;
 
-        when(customerRepository.findById(id)).thenReturn(Optional.of(existingCustomer));
+        Customer customerToUpdate = TestDataUtil.testUpdatedCustomer();
 
-        when(customerRepository.existsByEmail(anyString())).thenReturn(true);
+        when(customerRepository.updateById(id, 3L, customerToUpdate.getName(), customerToUpdate.getEmail(),
+                customerToUpdate.getAddress())).thenReturn(1);
 
         //when
+        CustomerDto result = underTest.fullUpdateCustomer(id, 3L, customerToUpdate);
 
         //then
-        assertThatThrownBy(() -> underTest.partialUpdate(id, customerToUpdate))
-                .isInstanceOf(EmailAlreadyExistsException.class)
-                .hasMessageContaining("Email " + newEmail + " already exists");
+        assertThat(result.getVersion()).isEqualTo(4L);
     }
 
     @Test
-    void TestThat_deleteCustomer_ShouldDeleteCustomer() {
+    void TestThat_fullUpdateCustomer_ShouldThrowCustomerVersionMismatchException_WhenExpectedVersionIsStale() {
         //given
         long id = 1L;
 
-        Customer existingCustomer = Customer.builder()
-                .id(id)
-                .name("Alice")
-                .email("alice@gmail.com")
-                .address("US")
-                .build();
+        Customer customerToUpdate = TestDataUtil.testUpdatedCustomer();
 
-        when(customerRepository.findById(id)).thenReturn(Optional.of(existingCustomer));
+        when(customerRepository.updateById(id, 3L, customerToUpdate.getName(), customerToUpdate.getEmail(),
+                customerToUpdate.getAddress())).thenReturn(0);
+        when(customerRepository.existsById(id)).thenReturn(true);
 
         //when
-        underTest.deleteCustomer(id);
 
         //then
-        verify(customerRepository).delete(existingCustomer);
+        assertThatThrownBy(() -> underTest.fullUpdateCustomer(id, 3L, customerToUpdate))
+                .isInstanceOf(CustomerVersionMismatchException.class)
+                .hasMessageContaining("version 3");
     }
 
     @Test
-    void TestThat_deleteCustomer_ShouldThrowCustomerNotFoundException_WhenCustomerIdDoesNotExist() {
+    void TestThat_deleteCustomer_ShouldThrowCustomerNotFoundException_WhenExpectedVersionIsGivenButCustomerIsMissing() {
         //given
         long id = 1L;
 
-        when(customerRepository.findById(id)).thenReturn(Optional.empty());
+        when(customerRepository.deleteCustomerById(id, 3L)).thenReturn(0);
+        when(customerRepository.existsById(id)).thenReturn(false);
 
         //when
 
         //then
-        assertThatThrownBy(() -> underTest.deleteCustomer(id))
+        assertThatThrownBy(() -> underTest.deleteCustomer(id, 3L))
                 .isInstanceOf(CustomerNotFoundException.class)
                 .hasMessageContaining("Customer not found with id " + id);
+    }
 
-        verify(customerRepository, never()).delete(any());
+    private static DataIntegrityViolationException emailUniqueIndexViolation() {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key", new SQLException(), Customer.EMAIL_UNIQUE_INDEX));
     }
-}
\ No newline at end of file
+}
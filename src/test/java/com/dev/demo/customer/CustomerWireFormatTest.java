@@ -0,0 +1,208 @@
+package com.dev.demo.customer;
+
+import com.dev.demo.exception.ApiErrorResponse;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Own database, so the ids CustomerControllerIntegrationTest expects from the shared one stay untouched
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:customer-wire-formats;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class CustomerWireFormatTest {
+
+    private static final String CUSTOMER_BASED_URL = "/api/v1/customers";
+
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+
+    private static final MediaType PROTOBUF = CustomerProtobufHttpMessageConverter.PROTOBUF;
+
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.saveAndFlush(Customer.builder()
+                .name("Alice")
+                .email("alice@gmail.com")
+                .address("US")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldReturnJson_WhenNoFormatIsAskedFor() throws Exception {
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/" + customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.email").value("alice@gmail.com"));
+    }
+
+    @Test
+    void TestThat_createCustomer_ShouldReadAndWriteCbor_WhenCborIsAskedFor() throws Exception {
+        //given
+        byte[] body = cborMapper.writeValueAsBytes(new CreateCustomerRequest("Bob", "bob@gmail.com", "UK"));
+
+        //when
+        byte[] result = mockMvc.perform(MockMvcRequestBuilders.post(CUSTOMER_BASED_URL)
+                        .contentType(CBOR)
+                        .accept(CBOR)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(CBOR))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        //then
+        CustomerDto created = cborMapper.readValue(result, CustomerDto.class);
+        assertThat(created.getId()).isNotNull();
+        assertThat(created.getEmail()).isEqualTo("bob@gmail.com");
+    }
+
+    @Test
+    void TestThat_partialUpdateCustomer_ShouldReadAndWriteProtobuf_WhenProtobufIsAskedFor() throws Exception {
+        //given
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(body);
+        output.writeString(3, "FR");
+        output.flush();
+
+        //when
+        byte[] result = mockMvc.perform(MockMvcRequestBuilders.patch(CUSTOMER_BASED_URL + "/" + customer.getId())
+                        .contentType(PROTOBUF)
+                        .accept(PROTOBUF)
+                        .content(body.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PROTOBUF))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        //then
+        CustomerDto updated = CustomerProtobufCodec.readCustomer(CodedInputStream.newInstance(result));
+        assertThat(updated.getId()).isEqualTo(customer.getId());
+        assertThat(updated.getName()).isEqualTo("Alice");
+        assertThat(updated.getAddress()).isEqualTo("FR");
+    }
+
+    @Test
+    void TestThat_getAllCustomers_ShouldWriteACustomerListAsProtobuf_WhenProtobufIsAskedFor() throws Exception {
+        //when
+        byte[] result = mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL).accept(PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PROTOBUF))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        //then
+        List<CustomerDto> customers = CustomerProtobufCodec.readCustomers(CodedInputStream.newInstance(result));
+        assertThat(customers).extracting(CustomerDto::getEmail).containsExactly("alice@gmail.com");
+    }
+
+    @Test
+    void TestThat_searchCustomers_ShouldReturnHttp406NotAcceptable_WhenProtobufIsAskedFor() throws Exception {
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/search").param("q", "alice").accept(PROTOBUF))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldWriteTheErrorAsCbor_WhenCustomerIsMissingAndCborIsAskedFor() throws Exception {
+        //when
+        byte[] result = mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/" + (customer.getId() + 1000))
+                        .accept(CBOR))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(CBOR))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        //then
+        ApiErrorResponse errorResponse = cborMapper.readValue(result, ApiErrorResponse.class);
+        assertThat(errorResponse.getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldSendAFormatSpecificETagAndVaryByAccept_WhenCborIsAskedFor() throws Exception {
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/" + customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/" + customer.getId()).accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-cbor\""))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+    }
+
+    @Test
+    void TestThat_getCustomerById_ShouldReturnHttp304NotModified_WhenTheCborETagMatches() throws Exception {
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/" + customer.getId())
+                        .accept(CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-cbor\""))
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_BASED_URL + "/" + customer.getId())
+                        .accept(PROTOBUF)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-cbor\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-x-protobuf\""));
+    }
+
+    @Test
+    void TestThat_partialUpdateCustomer_ShouldAcceptTheProtobufETagInIfMatch() throws Exception {
+        //given
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(body);
+        output.writeString(3, "FR");
+        output.flush();
+
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.patch(CUSTOMER_BASED_URL + "/" + customer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0-x-protobuf\"")
+                        .contentType(PROTOBUF)
+                        .accept(PROTOBUF)
+                        .content(body.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-x-protobuf\""));
+    }
+}
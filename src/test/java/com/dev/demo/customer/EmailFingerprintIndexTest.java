@@ -0,0 +1,80 @@
+package com.dev.demo.customer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailFingerprintIndexTest {
+
+    @Test
+    void TestThat_mightContain_ShouldReturnTrueForEveryEmail_WhenIndexIsNotReady() {
+        //given
+        EmailFingerprintIndex underTest = new EmailFingerprintIndex();
+
+        //when
+        //then
+        assertThat(underTest.mightContain("alice@gmail.com")).isTrue();
+    }
+
+    @Test
+    void TestThat_mightContain_ShouldNeverMissAnAddedEmail_WhenTableGrows() {
+        //given
+        EmailFingerprintIndex underTest = new EmailFingerprintIndex();
+        int count = 100_000;
+
+        //when
+        for (int i = 0; i < count; i++)
+            underTest.add("customer" + i + "@gmail.com");
+        underTest.markReady();
+
+        //then
+        assertThat(underTest.size()).isEqualTo(count);
+        for (int i = 0; i < count; i++)
+            assertThat(underTest.mightContain("customer" + i + "@gmail.com")).isTrue();
+        for (int i = count; i < 2 * count; i++)
+            assertThat(underTest.mightContain("customer" + i + "@gmail.com")).isFalse();
+    }
+
+    @Test
+    void TestThat_add_ShouldNotCountTheSameEmailTwice() {
+        //given
+        EmailFingerprintIndex underTest = new EmailFingerprintIndex();
+
+        //when
+        underTest.add("alice@gmail.com");
+        underTest.add("alice@gmail.com");
+
+        //then
+        assertThat(underTest.size()).isEqualTo(1);
+    }
+
+    @Test
+    void TestThat_memoryBytes_ShouldStayWithin32BytesPerEmail() {
+        //given
+        EmailFingerprintIndex underTest = new EmailFingerprintIndex();
+        int count = 1_000_000;
+
+        //when
+        for (int i = 0; i < count; i++)
+            underTest.add("customer" + i + "@gmail.com");
+
+        //then
+        assertThat(underTest.memoryBytes()).isBetween(16L * count, 32L * count);
+    }
+
+    @Test
+    void TestThat_add_ShouldKeepNothing_WhenIndexIsDisabled() {
+        //given
+        EmailFingerprintIndex underTest = EmailFingerprintIndex.disabled();
+
+        //when
+        underTest.add("alice@gmail.com");
+        underTest.markReady();
+
+        //then
+        assertThat(underTest.size()).isZero();
+        assertThat(underTest.memoryBytes()).isZero();
+        assertThat(underTest.isReady()).isFalse();
+        assertThat(underTest.mightContain("bob@gmail.com")).isTrue();
+    }
+}
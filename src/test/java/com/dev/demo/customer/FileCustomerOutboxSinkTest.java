@@ -0,0 +1,40 @@
+package com.dev.demo.customer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileCustomerOutboxSinkTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void TestThat_publish_ShouldAppendOneJsonLinePerMessage() throws Exception {
+        //given
+        Path file = directory.resolve("outbox.ndjson");
+        FileCustomerOutboxSink underTest = new FileCustomerOutboxSink(file, new ObjectMapper().registerModule(new JavaTimeModule()));
+
+        //when
+        underTest.publish(List.of(message(1, CustomerChangeType.CREATED)));
+        underTest.publish(List.of(message(2, CustomerChangeType.UPDATED), message(3, CustomerChangeType.DELETED)));
+
+        //then
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).contains("\"id\":1", "\"type\":\"CREATED\"");
+        assertThat(lines.get(2)).contains("\"id\":3", "\"type\":\"DELETED\"");
+    }
+
+    private static CustomerOutboxMessage message(long id, CustomerChangeType type) {
+        return new CustomerOutboxMessage(id, 7L, type, 0L, null, Instant.parse("2024-01-01T00:00:00Z"));
+    }
+}
@@ -0,0 +1,34 @@
+package com.dev.demo.customer;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Collects relayed messages and can be told to reject the next few batches
+class InMemoryCustomerOutboxSink implements CustomerOutboxSink {
+
+    private final List<CustomerOutboxMessage> messages = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger failuresToInject = new AtomicInteger();
+
+    @Override
+    public void publish(List<CustomerOutboxMessage> batch) {
+        if (failuresToInject.getAndUpdate(remaining -> Math.max(remaining - 1, 0)) > 0)
+            throw new IllegalStateException("Sink unavailable");
+
+        messages.addAll(batch);
+    }
+
+    List<CustomerOutboxMessage> messages() {
+        return messages;
+    }
+
+    void failNext(int batches) {
+        failuresToInject.set(batches);
+    }
+
+    void clear() {
+        messages.clear();
+        failuresToInject.set(0);
+    }
+}
@@ -0,0 +1,122 @@
+package com.dev.demo.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+
+    private AdmissionControlFilter underTest;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionControlProperties properties = new AdmissionControlProperties(
+                true, 1, Duration.ofMillis(50), List.of("/api/v1/customers/changes"));
+        underTest = new AdmissionControlFilter(properties, new ObjectMapper());
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldPassRequestThrough_WhenPermitIsAvailable() throws Exception {
+        //given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        //when
+        underTest.doFilter(new MockHttpServletRequest("GET", "/api/v1/customers"), response, filterChain);
+
+        //then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(filterChain.getRequest()).isNotNull();
+        assertThat(underTest.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldReturnHttp503_WhenAllPermitsAreTaken() throws Exception {
+        //given
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> blockingRequest = executor.submit(() -> {
+            underTest.doFilter(new MockHttpServletRequest("GET", "/api/v1/customers"), new MockHttpServletResponse(),
+                    (request, response) -> {
+                        inFlight.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+            return null;
+        });
+        assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        //when
+        underTest.doFilter(new MockHttpServletRequest("GET", "/api/v1/customers"), response, filterChain);
+
+        //then
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentAsString()).contains("\"status\":503");
+        assertThat(filterChain.getRequest()).isNull();
+
+        release.countDown();
+        blockingRequest.get(5, TimeUnit.SECONDS);
+        assertThat(underTest.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldHoldThePermitUntilTheAsyncRequestCompletes_WhenTheRequestGoesAsync() throws Exception {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers/export");
+        request.setAsyncSupported(true);
+
+        underTest.doFilter(request, new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> servletRequest.startAsync());
+        assertThat(underTest.availablePermits()).isZero();
+
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+
+        //when
+        asyncContext.complete();
+
+        //then
+        assertThat(underTest.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldReleaseThePermit_WhenALongLivedRequestGoesAsync() throws Exception {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers/changes");
+        request.setAsyncSupported(true);
+
+        //when
+        underTest.doFilter(request, new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> servletRequest.startAsync());
+
+        //then
+        assertThat(request.isAsyncStarted()).isTrue();
+        assertThat(underTest.availablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,98 @@
+package com.dev.demo.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadSheddingFilterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private Timer acquires;
+
+    private Counter timeouts;
+
+    private LoadSheddingFilter underTest;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        acquires = meterRegistry.timer(LoadSheddingFilter.ACQUIRE_METRIC, "pool", "primary");
+        timeouts = meterRegistry.counter(LoadSheddingFilter.TIMEOUT_METRIC, "pool", "primary");
+
+        LoadSheddingProperties properties = new LoadSheddingProperties(
+                true, "primary", Duration.ofMillis(50), Duration.ofSeconds(1), Set.of(RequestCost.BULK));
+        underTest = new LoadSheddingFilter(properties, new ObjectMapper(), meterRegistry, now::get);
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldReturnHttp503ForBulkRequests_WhenPoolWaitIsAboveTheThreshold() throws Exception {
+        //given
+        recordAcquires(10, Duration.ofMillis(100));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        MockHttpServletResponse bulkResponse = new MockHttpServletResponse();
+        MockFilterChain bulkChain = new MockFilterChain();
+        MockFilterChain singleChain = new MockFilterChain();
+
+        //when
+        underTest.doFilter(new MockHttpServletRequest("GET", "/api/v1/customers"), bulkResponse, bulkChain);
+        underTest.doFilter(new MockHttpServletRequest("GET", "/api/v1/customers/1"), new MockHttpServletResponse(), singleChain);
+
+        //then
+        assertThat(bulkResponse.getStatus()).isEqualTo(503);
+        assertThat(bulkResponse.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(bulkChain.getRequest()).isNull();
+        assertThat(singleChain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void TestThat_overloaded_ShouldOnlyLookAtTheLastInterval_WhenPoolWaitRecovers() {
+        //given
+        recordAcquires(10, Duration.ofMillis(100));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        boolean overloaded = underTest.overloaded();
+
+        //when
+        recordAcquires(100, Duration.ofMillis(1));
+        boolean withinInterval = underTest.overloaded();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        boolean recovered = underTest.overloaded();
+
+        //then
+        assertThat(overloaded).isTrue();
+        assertThat(withinInterval).isTrue();
+        assertThat(recovered).isFalse();
+    }
+
+    @Test
+    void TestThat_overloaded_ShouldBeTrue_WhenAnAcquireTimedOutInTheLastInterval() {
+        //given
+        recordAcquires(10, Duration.ofMillis(1));
+        timeouts.increment();
+
+        //when
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        //then
+        assertThat(underTest.overloaded()).isTrue();
+    }
+
+    private void recordAcquires(int count, Duration wait) {
+        for (int i = 0; i < count; i++)
+            acquires.record(wait);
+    }
+}
@@ -0,0 +1,178 @@
+package com.dev.demo.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrecompressedResponseFilterTest {
+
+    private static final String LARGE_BODY = "[" + "{\"id\":1,\"name\":\"Customer\"},".repeat(200) + "{}]";
+
+    private PrecompressedResponseFilter underTest;
+
+    @BeforeEach
+    void setUp() {
+        PrecompressedResponseProperties properties = new PrecompressedResponseProperties(
+                true, DataSize.ofKilobytes(2), DataSize.ofMegabytes(1), 1);
+        underTest = new PrecompressedResponseFilter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldGzipTheBody_WhenClientAcceptsGzipAndBodyIsAboveTheThreshold() throws Exception {
+        //given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when
+        underTest.doFilter(listRequest("gzip, deflate, br"), response, chainWriting(LARGE_BODY, "\"1\""));
+
+        //then
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"1-gzip\"");
+        assertThat(response.getContentLength()).isEqualTo(response.getContentAsByteArray().length);
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(LARGE_BODY);
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldReuseTheCompressedBytes_UntilTheETagChanges() throws Exception {
+        //given
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        MockHttpServletResponse changed = new MockHttpServletResponse();
+
+        //when
+        underTest.doFilter(listRequest("gzip"), first, chainWriting(LARGE_BODY, "\"1\""));
+        underTest.doFilter(listRequest("gzip"), second, chainWriting(LARGE_BODY, "\"1\""));
+        underTest.doFilter(listRequest("gzip"), changed, chainWriting(LARGE_BODY + " ", "\"2\""));
+
+        //then
+        assertThat(underTest.compressions()).isEqualTo(2);
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+        assertThat(gunzip(changed.getContentAsByteArray())).isEqualTo(LARGE_BODY + " ");
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldKeepTheETag_WhenItIsWeak() throws Exception {
+        //given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when
+        underTest.doFilter(listRequest("gzip"), response, chainWriting(LARGE_BODY, "W/\"1\""));
+
+        //then
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"1\"");
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldReturnNotModifiedWithTheGzipETag_WhenIfNoneMatchNamesTheGzipETag() throws Exception {
+        //given
+        MockHttpServletRequest request = listRequest("gzip");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1-gzip\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when
+        underTest.doFilter(request, response, chainWriting(LARGE_BODY, "\"1\""));
+
+        //then
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"1-gzip\"");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldLeaveTheBodyAlone_WhenItIsBelowTheThreshold() throws Exception {
+        //given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when
+        underTest.doFilter(listRequest("gzip"), response, chainWriting("[]", "\"0\""));
+
+        //then
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+        assertThat(underTest.compressions()).isZero();
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldLeaveTheBodyAlone_WhenClientDoesNotAcceptGzip() throws Exception {
+        //given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when
+        underTest.doFilter(listRequest("gzip;q=0, br"), response, chainWriting(LARGE_BODY, "\"1\""));
+
+        //then
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getContentAsString()).isEqualTo(LARGE_BODY);
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldLeaveTheBodyAlone_WhenResponseHasNoETag() throws Exception {
+        //given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when
+        underTest.doFilter(listRequest("gzip"), response, chainWriting(LARGE_BODY, null));
+
+        //then
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(LARGE_BODY);
+    }
+
+    @Test
+    void TestThat_acceptsGzip_ShouldHonourWildcardsAndZeroQuality() {
+        //then
+        assertThat(PrecompressedResponseFilter.acceptsGzip("gzip")).isTrue();
+        assertThat(PrecompressedResponseFilter.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(PrecompressedResponseFilter.acceptsGzip("*")).isTrue();
+        assertThat(PrecompressedResponseFilter.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(PrecompressedResponseFilter.acceptsGzip("br")).isFalse();
+        assertThat(PrecompressedResponseFilter.acceptsGzip(null)).isFalse();
+    }
+
+    private static MockHttpServletRequest listRequest(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return request;
+    }
+
+    private static MockFilterChain chainWriting(String body, String eTag) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                if (eTag != null)
+                    response.setHeader(HttpHeaders.ETAG, eTag);
+                if (eTag != null && eTag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    return;
+                }
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
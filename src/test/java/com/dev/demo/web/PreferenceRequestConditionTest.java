@@ -0,0 +1,36 @@
+package com.dev.demo.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PreferenceRequestConditionTest {
+
+    private final PreferenceRequestCondition underTest = new PreferenceRequestCondition("respond-async");
+
+    @Test
+    void TestThat_getMatchingCondition_ShouldMatch_WhenPreferenceIsAmongOthersInAnyCase() {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/customers");
+        request.addHeader("Prefer", "return=minimal");
+        request.addHeader("Prefer", "wait=10, Respond-Async ; foo=bar");
+
+        //when
+        //then
+        assertThat(underTest.getMatchingCondition(request)).isSameAs(underTest);
+    }
+
+    @Test
+    void TestThat_getMatchingCondition_ShouldNotMatch_WhenPreferenceIsMissingOrOnlyAValue() {
+        //given
+        MockHttpServletRequest withoutPrefer = new MockHttpServletRequest("POST", "/api/v1/customers");
+        MockHttpServletRequest otherPreference = new MockHttpServletRequest("POST", "/api/v1/customers");
+        otherPreference.addHeader("Prefer", "handling=respond-async");
+
+        //when
+        //then
+        assertThat(underTest.getMatchingCondition(withoutPrefer)).isNull();
+        assertThat(underTest.getMatchingCondition(otherPreference)).isNull();
+    }
+}
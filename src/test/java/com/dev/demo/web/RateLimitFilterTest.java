@@ -0,0 +1,104 @@
+package com.dev.demo.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RateLimitFilter underTest;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties(
+                true, "X-API-Key", Set.of("alice", "bob"), 100, 1, 1, 100, 100);
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new RateLimitFilter(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldReturnHttp429_WhenClientHasUsedItsBulkBudget() throws Exception {
+        //given
+        underTest.doFilter(request("GET", "/api/v1/customers", "alice"), new MockHttpServletResponse(), new MockFilterChain());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        //when
+        underTest.doFilter(request("GET", "/api/v1/customers", "alice"), response, filterChain);
+
+        //then
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentAsString()).contains("\"status\":429");
+        assertThat(filterChain.getRequest()).isNull();
+        assertThat(meterRegistry.get(RejectedRequests.REJECTIONS_METRIC).tag("cost", "bulk").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldKeepSingleLookupsAndOtherClientsGoing_WhenOneClientHasUsedItsBulkBudget() throws Exception {
+        //given
+        underTest.doFilter(request("GET", "/api/v1/customers", "alice"), new MockHttpServletResponse(), new MockFilterChain());
+
+        MockFilterChain singleLookup = new MockFilterChain();
+        MockFilterChain otherClient = new MockFilterChain();
+        MockFilterChain anonymousClient = new MockFilterChain();
+
+        //when
+        underTest.doFilter(request("GET", "/api/v1/customers/1", "alice"), new MockHttpServletResponse(), singleLookup);
+        underTest.doFilter(request("GET", "/api/v1/customers", "bob"), new MockHttpServletResponse(), otherClient);
+        underTest.doFilter(request("GET", "/api/v1/customers", null), new MockHttpServletResponse(), anonymousClient);
+
+        //then
+        assertThat(singleLookup.getRequest()).isNotNull();
+        assertThat(otherClient.getRequest()).isNotNull();
+        assertThat(anonymousClient.getRequest()).isNotNull();
+    }
+
+    @Test
+    void TestThat_doFilter_ShouldLimitByAddress_WhenTheApiKeyIsNotConfigured() throws Exception {
+        //given
+        underTest.doFilter(request("GET", "/api/v1/customers", "random-1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        //when
+        underTest.doFilter(request("GET", "/api/v1/customers", "random-2"), response, filterChain);
+
+        //then
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(filterChain.getRequest()).isNull();
+    }
+
+    @Test
+    void TestThat_of_ShouldTreatListsSearchExportAndBatchesAsBulk() {
+        //then
+        assertThat(RequestCost.of(request("GET", "/api/v1/customers", null))).isEqualTo(RequestCost.BULK);
+        assertThat(RequestCost.of(request("GET", "/api/v1/customers/export", null))).isEqualTo(RequestCost.BULK);
+        assertThat(RequestCost.of(request("GET", "/api/v1/customers/search", null))).isEqualTo(RequestCost.BULK);
+        assertThat(RequestCost.of(request("POST", "/api/v1/customers/batch", null))).isEqualTo(RequestCost.BULK);
+        assertThat(RequestCost.of(request("PATCH", "/api/v1/customers", null))).isEqualTo(RequestCost.BULK);
+        assertThat(RequestCost.of(request("POST", "/api/v1/customers", null))).isEqualTo(RequestCost.SINGLE);
+        assertThat(RequestCost.of(request("GET", "/api/v1/customers/1", null))).isEqualTo(RequestCost.SINGLE);
+        assertThat(RequestCost.of(request("DELETE", "/api/v1/customers/1", null))).isEqualTo(RequestCost.SINGLE);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (apiKey != null)
+            request.addHeader("X-API-Key", apiKey);
+        return request;
+    }
+}
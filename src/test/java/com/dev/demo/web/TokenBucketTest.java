@@ -0,0 +1,78 @@
+package com.dev.demo.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void TestThat_tryAcquire_ShouldAllowAFullBucketAtOnce_AndThenRefuse() {
+        //given
+        TokenBucket underTest = new TokenBucket(2, 1, now::get);
+
+        //when
+        //then
+        assertThat(underTest.tryAcquire()).isTrue();
+        assertThat(underTest.tryAcquire()).isTrue();
+        assertThat(underTest.tryAcquire()).isFalse();
+        assertThat(underTest.nanosUntilNextToken()).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void TestThat_tryAcquire_ShouldRefillAtTheConfiguredRate_WithoutExceedingTheCapacity() {
+        //given
+        TokenBucket underTest = new TokenBucket(2, 1, now::get);
+        underTest.tryAcquire();
+        underTest.tryAcquire();
+
+        //when
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        boolean refilled = underTest.tryAcquire();
+        boolean empty = underTest.tryAcquire();
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        int afterIdle = 0;
+        while (underTest.tryAcquire())
+            afterIdle++;
+
+        //then
+        assertThat(refilled).isTrue();
+        assertThat(empty).isFalse();
+        assertThat(afterIdle).isEqualTo(2);
+    }
+
+    @Test
+    void TestThat_tryAcquire_ShouldHandOutExactlyTheCapacity_WhenManyThreadsRace() throws Exception {
+        //given
+        TokenBucket underTest = new TokenBucket(1000, 1, now::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger acquired = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < 8; i++)
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 500; j++)
+                    if (underTest.tryAcquire())
+                        acquired.incrementAndGet();
+                return null;
+            }));
+        start.countDown();
+        for (Future<?> future : futures)
+            future.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //then
+        assertThat(acquired).hasValue(1000);
+    }
+}